@@ -0,0 +1,100 @@
+/*
+ *
+ * Description: AnimationTimeline class that times the animation of a move: the
+ *              tiles slide for the slide time, then the new tiles appear for
+ *              the apparition time. The progress of both parts is worked out
+ *              from the time that has passed since the move, not from the
+ *              number of frames drawn, so a move takes as long on a slow
+ *              machine as on a fast one; a slow machine only draws fewer
+ *              frames of it. Every frame reads the progress once and places
+ *              all tiles from it.
+ *
+ */
+
+public class AnimationTimeline {
+    //time the tiles take to slide to their cells, in nanoseconds
+    private long slideNanos;
+    //time the new tiles take to appear once the slide is over, in nanoseconds
+    private long apparitionNanos;
+    //System.nanoTime() when the animation started
+    private long start;
+    //true until the animation reached its end
+    private boolean running;
+
+    /* Description: constructor for a timeline that is not running
+     * Input: the time of the slide and of the apparition in nanoseconds
+     * Output: none
+     */
+    public AnimationTimeline(long slideNanos, long apparitionNanos) {
+        if (slideNanos <= 0 || apparitionNanos <= 0) {
+            throw new IllegalArgumentException("the times must be positive");
+        }
+        this.slideNanos = slideNanos;
+        this.apparitionNanos = apparitionNanos;
+    }
+
+    /* Description: starts the animation again from the beginning
+     * Input: the current System.nanoTime()
+     * Output: none
+     */
+    public void restart(long now) {
+        start = now;
+        running = true;
+    }
+
+    /* Description: ends the animation at once, as if its time had passed
+     * Input: none
+     * Output: none
+     */
+    public void stop() {
+        running = false;
+    }
+
+    /* Description: returns true until a frame at or after the end of the
+     *              animation was reached with advance
+     * Input: none
+     * Output: true if another frame should be drawn and false otherwise
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /* Description: stops the animation once its end has been reached
+     * Input: the time of the frame, from System.nanoTime()
+     * Output: true if the animation goes on after this frame and false
+     *         otherwise
+     */
+    public boolean advance(long now) {
+        if (running && now - start >= slideNanos + apparitionNanos) {
+            running = false;
+        }
+        return running;
+    }
+
+    /* Description: returns how far the slide has come
+     * Input: the time of the frame, from System.nanoTime()
+     * Output: the progress from 0 at the start to 1 at the end, 1 when the
+     *         animation is not running
+     */
+    public double slideProgress(long now) {
+        return running ? progress(now - start, slideNanos) : 1;
+    }
+
+    /* Description: returns how far the new tiles have appeared, which only
+     *              starts once the slide is over
+     * Input: the time of the frame, from System.nanoTime()
+     * Output: the progress from 0 at the start to 1 at the end, 1 when the
+     *         animation is not running
+     */
+    public double apparitionProgress(long now) {
+        return running ? progress(now - start - slideNanos, apparitionNanos) : 1;
+    }
+
+    /* Description: turns the time into a part of an animation into its progress
+     * Input: the time since the part started and the length of the part
+     * Output: the progress, kept between 0 and 1
+     */
+    private static double progress(long elapsed, long length) {
+        return Math.max(0, Math.min(1, (double) elapsed / length));
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ *
+ * Description: BatchBoard class that plays many independent 4x4 games in
+ *              lockstep, for training and playouts that would otherwise call
+ *              shift on thousands of boards one at a time. The games are kept
+ *              as a structure of arrays: the packed grids, the scores, the
+ *              numbers of moves and the legal keys of all games each sit in
+ *              one primitive array, indexed by the number of the game. A step
+ *              goes over the whole batch three times, first moving every game,
+ *              then adding the new tiles, then working out which keys are
+ *              left, so that every pass is a tight loop over flat arrays with
+ *              the MoveTables hot in the cache. Game g follows the same rules
+ *              and draws the same tiles as a BitBoard made with the g-th split
+ *              of the batch's source. Nothing is allocated after the batch is
+ *              built, except a new source when a game is restarted.
+ *
+ */
+
+public class BatchBoard {
+    //the source every game splits its own source from
+    private RandomSource random;
+    //the source of the new tiles of every game
+    private RandomSource[] sources;
+    //the packed grid of every game
+    private long[] states;
+    //the score of every game
+    private int[] scores;
+    //the number of moves of every game
+    private int[] moves;
+    //the keys that change the grid of every game, as in BitBoard.legalMoves
+    private int[] legal;
+    //the cell of the last new tile of every game, -1 if none
+    private int[] lastSpawns;
+    //true for the games that moved during the current step
+    private boolean[] moved;
+
+    /* Description: constructor that starts the given number of games, each with
+     *              two tiles
+     * Input: the number of games and the source they split their sources from
+     * Output: none (builds the batch)
+     */
+    public BatchBoard(int games, RandomSource random) {
+        if (games < 1) {
+            throw new IllegalArgumentException("a batch has at least one game");
+        }
+        this.random = random;
+        sources = new RandomSource[games];
+        states = new long[games];
+        scores = new int[games];
+        moves = new int[games];
+        legal = new int[games];
+        lastSpawns = new int[games];
+        moved = new boolean[games];
+        for (int g = 0; g < games; g++) {
+            restart(g);
+        }
+    }
+
+    /* Description: getter to get the number of games of the batch
+     * Input: none
+     * Output: the number of games
+     */
+    public int getNumberOfGames() {
+        return states.length;
+    }
+
+    /* Description: starts a game again from an empty grid with two new tiles and
+     *              a new source split from the batch's source
+     * Input: the number of the game
+     * Output: none
+     */
+    public void restart(int game) {
+        sources[game] = random.split();
+        states[game] = 0L;
+        scores[game] = 0;
+        moves[game] = 0;
+        lastSpawns[game] = -1;
+        spawn(game);
+        spawn(game);
+        legal[game] = BitBoard.legalMoves(states[game]);
+    }
+
+    /* Description: makes one move in every game. A game whose key does not
+     *              change its grid, for example because the game is over or the
+     *              key is 0, is left as it is.
+     * Input: the character key of every game, indexed by the number of the game
+     * Output: the number of games that moved
+     */
+    public int step(char[] keys) {
+        int games = states.length;
+        if (keys.length < games) {
+            throw new IllegalArgumentException("one key is needed per game");
+        }
+        int count = 0;
+        for (int g = 0; g < games; g++) {
+            char key = keys[g];
+            boolean permitted = (legal[g] & BitBoard.keyBit(key)) != 0;
+            moved[g] = permitted;
+            if (permitted) {
+                long state = states[g];
+                scores[g] += BitBoard.scoreOf(state, key);
+                states[g] = BitBoard.move(state, key);
+                moves[g]++;
+                count++;
+            }
+        }
+        for (int g = 0; g < games; g++) {
+            if (moved[g]) {
+                spawn(g);
+            }
+        }
+        for (int g = 0; g < games; g++) {
+            if (moved[g]) {
+                legal[g] = BitBoard.legalMoves(states[g]);
+            }
+        }
+        return count;
+    }
+
+    /* Description: adds a 2 or a 4 to a random empty cell of one game, with one
+     *              random draw the same way as BitBoard.newTile
+     * Input: the number of the game
+     * Output: none
+     */
+    private void spawn(int game) {
+        int empty = BitBoard.emptyMask(states[game]);
+        int count = Integer.bitCount(empty);
+        if (count == 0) {
+            return;
+        }
+        int draw = sources[game].nextInt(count * 2);
+        int cell = BitBoard.selectBit(empty, draw >> 1);
+        long exponent = (draw & 1) == 0 ? 2 : 1;
+        states[game] |= exponent << (BitBoard.CELL_BITS * cell);
+        lastSpawns[game] = cell;
+    }
+
+    /* Description: returns the keys that change the grid of one game
+     * Input: the number of the game
+     * Output: a mask with bit k set when BitBoard.KEYS.charAt(k) changes it
+     */
+    public int getLegalMoves(int game) {
+        return legal[game];
+    }
+
+    /* Description: returns true if no key can change the grid of one game
+     * Input: the number of the game
+     * Output: true if the game is over and false otherwise
+     */
+    public boolean isGameOver(int game) {
+        return legal[game] == 0;
+    }
+
+    /* Description: counts the games that are over
+     * Input: none
+     * Output: the number of games no key can change
+     */
+    public int countGamesOver() {
+        int count = 0;
+        for (int g = 0; g < legal.length; g++) {
+            if (legal[g] == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /* Description: returns true if one game has made a 2048 tile
+     * Input: the number of the game
+     * Output: true if the game is won and false otherwise
+     */
+    public boolean hasWonGame(int game) {
+        return BitBoard.maxExponent(states[game]) >= BitBoard.WINNING_EXPONENT;
+    }
+
+    /* Description: getter to get the packed grid of one game
+     * Input: the number of the game
+     * Output: the packed grid of tile exponents
+     */
+    public long getState(int game) {
+        return states[game];
+    }
+
+    /* Description: getter to get the score of one game
+     * Input: the number of the game
+     * Output: the sum of every tile created by a merge
+     */
+    public int getScore(int game) {
+        return scores[game];
+    }
+
+    /* Description: getter to get the number of moves of one game
+     * Input: the number of the game
+     * Output: the number of moves
+     */
+    public int getNumberOfMoves(int game) {
+        return moves[game];
+    }
+
+    /* Description: getter to get the cell of the last new tile of one game
+     * Input: the number of the game
+     * Output: the index 4 * i + j of the cell, or -1 if no tile was added yet
+     */
+    public int getLastSpawn(int game) {
+        return lastSpawns[game];
+    }
+
+    /* Description: getter to get the seed of the source of one game
+     * Input: the number of the game
+     * Output: the seed, which replays the game on a BitBoard
+     */
+    public long getSeed(int game) {
+        return sources[game].getSeed();
+    }
+}
@@ -0,0 +1,483 @@
+/*
+ *
+ * Description: BitBoard class that implements the BoardInterface by packing the
+ *              4x4 grid of the 2048 game into a single long. Every cell takes 4
+ *              bits and holds the exponent of its tile (1 for 2, 2 for 4, ...)
+ *              or 0 when the cell is empty. Cell (i, j) lives in the bits
+ *              starting at 4 * (4 * i + j), so each row of the grid is a 16-bit
+ *              chunk of the long. Moves are looked up in the MoveTables and
+ *              no method allocates. The largest tile, the empty cells and
+ *              whether a move is left are kept up to date as the board
+ *              changes, so asking for them costs nothing.
+ *
+ */
+
+public class BitBoard implements BoardInterface {
+    //the packed grid of tile exponents
+    private long board;
+    //variable that keeps track of the number of moves made by the user
+    private int numberOfMoves;
+    //sum of the values of every tile created by a merge
+    private int score;
+    //index (4 * i + j) of the cell filled by the last new tile, -1 if none
+    private int lastSpawn;
+    //bit 4 * i + j is set when cell (i, j) is empty
+    private int emptyCells;
+    //where the new tiles come from
+    private RandomSource random;
+    //exponent of the largest tile on the board
+    private int maxExponent;
+    //true while at least one key can change the board
+    private boolean movesLeft;
+    // number of Tiles per column / row
+    public static final int GRID = 4;
+    // number of bits used by one cell
+    public static final int CELL_BITS = 4;
+    // mask of a single cell
+    public static final int CELL_MASK = 0xF;
+    // mask of a single row
+    public static final int ROW_MASK = 0xFFFF;
+    // mask with one bit for every cell of the grid
+    public static final int ALL_CELLS = 0xFFFF;
+    // exponent of the 2048 tile
+    public static final int WINNING_EXPONENT = 11;
+    // the keys in the order of their bits in legalMoves
+    public static final String KEYS = "wasd";
+
+    /* Description: Default constructor for the BitBoard that starts an empty 4x4
+     *              grid with two random tiles
+     * Input: none
+     * Output: none (builds the board)
+     */
+    public BitBoard() {
+        this(new SplittableRandomSource());
+    }
+
+    /* Description: constructor that starts an empty 4x4 grid with two tiles
+     *              drawn from the given source, which then decides every new
+     *              tile of the game
+     * Input: the source of the random numbers
+     * Output: none (builds the board)
+     */
+    public BitBoard(RandomSource random) {
+        this.random = random;
+        board = 0L;
+        numberOfMoves = 0;
+        lastSpawn = -1;
+        emptyCells = ALL_CELLS;
+        maxExponent = 0;
+        movesLeft = false;
+        newTile();
+        newTile();
+    }
+
+    /* Description: constructor that starts from an already packed grid
+     * Input: the packed grid of tile exponents
+     * Output: none (builds the board)
+     */
+    public BitBoard(long board) {
+        this(board, new SplittableRandomSource());
+    }
+
+    /* Description: constructor that starts from an already packed grid and draws
+     *              the new tiles from the given source
+     * Input: the packed grid of tile exponents and the source of random numbers
+     * Output: none (builds the board)
+     */
+    public BitBoard(long board, RandomSource random) {
+        this.random = random;
+        numberOfMoves = 0;
+        setState(board);
+    }
+
+    /* Description: getter to get the number of cells per column / row
+     * Input: none
+     * Output: the size of the grid, always 4
+     */
+    public int getSize() {
+        return GRID;
+    }
+
+    /* Description: getter to get the packed grid
+     * Input: none
+     * Output: the packed grid of tile exponents
+     */
+    public long getState() {
+        return board;
+    }
+
+    /* Description: replaces the packed grid, for example to go back to an earlier
+     *              position. The number of moves and the score are kept.
+     * Input: the packed grid of tile exponents
+     * Output: none
+     */
+    public void setState(long board) {
+        this.board = board;
+        emptyCells = emptyMask(board);
+        maxExponent = maxExponent(board);
+        updateMovesLeft();
+        lastSpawn = -1;
+    }
+
+    /* Description: replaces the packed grid together with the number of moves
+     *              and the score, for example to go back to a saved position
+     * Input: the packed grid of tile exponents, the number of moves and the score
+     * Output: none
+     */
+    public void setState(long board, int numberOfMoves, int score) {
+        setState(board);
+        this.numberOfMoves = numberOfMoves;
+        this.score = score;
+    }
+
+    /* Description: getter to get the number of moves made so far
+     * Input: none
+     * Output: the number of moves
+     */
+    public int getNumberOfMoves() {
+        return numberOfMoves;
+    }
+
+    /* Description: getter to get the sum of every tile created by a merge
+     * Input: none
+     * Output: the score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /* Description: getter to get the source of the new tiles
+     * Input: none
+     * Output: the random source
+     */
+    public RandomSource getRandom() {
+        return random;
+    }
+
+    /* Description: getter to get the cell filled by the last new tile
+     * Input: none
+     * Output: the index 4 * i + j of the cell, or -1 if no tile was added yet
+     */
+    public int getLastSpawn() {
+        return lastSpawn;
+    }
+
+    /* Description: returns the number on the tile at row i and column j
+     * Input: int i, int j identifies the cell
+     * Output: the number of the tile, 0 if the cell is empty
+     */
+    public int getTile(int i, int j) {
+        int exponent = exponentAt(board, GRID * i + j);
+        return exponent == 0 ? 0 : 1 << exponent;
+    }
+
+    /* Description: counts the tiles on the board
+     * Input: none
+     * Output: the number of occupied cells
+     */
+    public int getNumberOfTiles() {
+        return GRID * GRID - Integer.bitCount(emptyCells);
+    }
+
+    /* Description: getter to get the empty cells of the board
+     * Input: none
+     * Output: a mask where bit 4 * i + j is set when cell (i, j) is empty
+     */
+    public int getEmptyCells() {
+        return emptyCells;
+    }
+
+    /* Description: getter to get the largest tile on the board
+     * Input: none
+     * Output: the number of the largest tile, 0 if the board is empty
+     */
+    public int getMaxTile() {
+        return maxExponent == 0 ? 0 : 1 << maxExponent;
+    }
+
+    /* Description: returns true while at least one key can change the board
+     * Input: none
+     * Output: true if a tile can still move or merge and false otherwise
+     */
+    public boolean hasMovesLeft() {
+        return movesLeft;
+    }
+
+    /* Description: works out whether a key can still change the board. With at
+     *              least one tile and one empty cell some tile can always move;
+     *              a full board can only move if two neighbours can merge.
+     * Input: none
+     * Output: none
+     */
+    private void updateMovesLeft() {
+        if (emptyCells == 0) {
+            movesLeft = legalMoves(board) != 0;
+        } else {
+            movesLeft = emptyCells != ALL_CELLS;
+        }
+    }
+
+    /* Description: After every move, adds a new tile that is a 2 or 4 at a random
+     *              unoccupied position on the board. One random draw picks both
+     *              the empty cell and the number, so the cost does not depend on
+     *              how full the board is.
+     * Input: none
+     * Output: the index 4 * i + j of the filled cell, or -1 if the board is full
+     */
+    public int newTile() {
+        int count = Integer.bitCount(emptyCells);
+        if (count == 0) {
+            return -1;
+        }
+        int draw = random.nextInt(count * 2);
+        int cell = selectBit(emptyCells, draw >> 1);
+        int exponent = (draw & 1) == 0 ? 2 : 1;
+        board |= (long) exponent << (CELL_BITS * cell);
+        emptyCells &= ~(1 << cell);
+        maxExponent = Math.max(maxExponent, exponent);
+        updateMovesLeft();
+        lastSpawn = cell;
+        return cell;
+    }
+
+    /* Description: returns true if the key pressed is able to be processed. For
+     *              example a possible move can be made.
+     * Input: the character of the key that has been pressed
+     * Output: returns true if the key changes the board and false otherwise
+     */
+    public boolean isKeyPermitted(char key) {
+        return (legalMoves(board) & keyBit(key)) != 0;
+    }
+
+    /* Description: returns every key that changes the board
+     * Input: none
+     * Output: a mask with bit k set when KEYS.charAt(k) changes the board
+     */
+    public int legalMoves() {
+        return legalMoves(board);
+    }
+
+    /* Description: when the key is pressed, all the tiles in the board will move in
+     *              this direction and merge, without adding a new tile
+     * Input: the character key which describes the direction of movement
+     * Output: returns true if the board changed and false otherwise
+     */
+    public boolean motionOfKey(char key) {
+        long moved = move(board, key);
+        if (moved == board) {
+            return false;
+        }
+        score += scoreOf(board, key);
+        board = moved;
+        emptyCells = emptyMask(board);
+        maxExponent = maxExponent(board);
+        movesLeft = true;
+        return true;
+    }
+
+    /* Description: moves and merges the tiles in the direction described by the
+     *              key, then creates a random new tile of either 2 or 4
+     * Input: the character key which describes the direction to move
+     * Output: none
+     */
+    public void shift(char key) {
+        if (motionOfKey(key)) {
+            newTile();
+            numberOfMoves++;
+        }
+    }
+
+    /* Description: returns true if no key can change the board anymore
+     * Input: none
+     * Output: return true when the board is full and all adjacent tiles are
+     *         different from one another and false otherwise
+     */
+    public boolean isGameOver() {
+        return !movesLeft;
+    }
+
+    /* Description: returns true when the 2048 tile is on the board
+     * Input: none
+     * Output: returns true if user has made 2048 so that they have won and false
+     *         otherwise
+     */
+    public boolean hasWonGame() {
+        return maxExponent >= WINNING_EXPONENT;
+    }
+
+    /* Description: returns the exponent stored in one cell of a packed grid
+     * Input: the packed grid and the index 4 * i + j of the cell
+     * Output: the exponent of the tile, 0 if the cell is empty
+     */
+    public static int exponentAt(long board, int cell) {
+        return (int) (board >>> (CELL_BITS * cell)) & CELL_MASK;
+    }
+
+    /* Description: returns the largest exponent of a packed grid
+     * Input: the packed grid
+     * Output: the exponent of the largest tile, 0 if the grid is empty
+     */
+    public static int maxExponent(long board) {
+        return Math.max(Math.max(MoveTables.maxExponent(rowAt(board, 0)),
+                                 MoveTables.maxExponent(rowAt(board, 1))),
+                        Math.max(MoveTables.maxExponent(rowAt(board, 2)),
+                                 MoveTables.maxExponent(rowAt(board, 3))));
+    }
+
+    /* Description: finds the empty cells of a packed grid with a few bit
+     *              operations instead of testing the cells one by one
+     * Input: the packed grid
+     * Output: a mask where bit 4 * i + j is set when cell (i, j) is empty
+     */
+    public static int emptyMask(long board) {
+        long x = board | (board >>> 2);
+        x |= x >>> 1;
+        x = ~x & 0x1111111111111111L;
+        x = (x | (x >>> 3)) & 0x0303030303030303L;
+        x = (x | (x >>> 6)) & 0x000F000F000F000FL;
+        x = (x | (x >>> 12)) & 0x000000FF000000FFL;
+        return (int) (x | (x >>> 24)) & ALL_CELLS;
+    }
+
+    /* Description: returns the position of the k-th set bit of a mask, counting
+     *              from the lowest bit
+     * Input: the mask and k, which is smaller than the number of set bits
+     * Output: the position of the bit
+     */
+    public static int selectBit(int mask, int k) {
+        for (int skipped = 0; skipped < k; skipped++) {
+            mask &= mask - 1;
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+
+    /* Description: swaps rows and columns of a packed grid so that column moves
+     *              can be done as row moves
+     * Input: the packed grid
+     * Output: the grid with cell (i, j) moved to (j, i)
+     */
+    public static long transpose(long board) {
+        long a1 = board & 0xF0F00F0FF0F00F0FL;
+        long a2 = board & 0x0000F0F00000F0F0L;
+        long a3 = board & 0x0F0F00000F0F0000L;
+        long a = a1 | (a2 << 12) | (a3 >>> 12);
+        long b1 = a & 0xFF00FF0000FF00FFL;
+        long b2 = a & 0x00FF00FF00000000L;
+        long b3 = a & 0x00000000FF00FF00L;
+        return b1 | (b2 >>> 24) | (b3 << 24);
+    }
+
+    /* Description: moves a packed grid in the direction of the key without
+     *              adding a new tile. 'a' moves towards column 0, 'd' towards
+     *              column 3, 's' towards row 0 and 'w' towards row 3.
+     * Input: the packed grid and the character key of the direction
+     * Output: the moved grid, or the same grid if the key is not a direction
+     */
+    public static long move(long board, char key) {
+        if (key == 'a') {
+            return moveLeft(board);
+        } else if (key == 'd') {
+            return moveRight(board);
+        } else if (key == 's') {
+            return transpose(moveLeft(transpose(board)));
+        } else if (key == 'w') {
+            return transpose(moveRight(transpose(board)));
+        }
+        return board;
+    }
+
+    /* Description: adds up the value of every tile a move in the direction of the
+     *              key creates by merging
+     * Input: the packed grid and the character key of the direction
+     * Output: the score gained by the move
+     */
+    public static int scoreOf(long board, char key) {
+        if (key == 's' || key == 'w') {
+            board = transpose(board);
+        } else if (key != 'a' && key != 'd') {
+            return 0;
+        }
+        boolean toRight = key == 'd' || key == 'w';
+        int total = 0;
+        for (int i = 0; i < GRID; i++) {
+            int row = rowAt(board, i);
+            total += toRight ? MoveTables.scoreRight(row) : MoveTables.scoreLeft(row);
+        }
+        return total;
+    }
+
+    /* Description: returns true if a move in the direction of the key changes the
+     *              packed grid
+     * Input: the packed grid and the character key of the direction
+     * Output: true if a tile moves or merges and false otherwise
+     */
+    public static boolean canMove(long board, char key) {
+        if (key == 's' || key == 'w') {
+            board = transpose(board);
+        } else if (key != 'a' && key != 'd') {
+            return false;
+        }
+        boolean toRight = key == 'd' || key == 'w';
+        for (int i = 0; i < GRID; i++) {
+            int row = rowAt(board, i);
+            if (toRight ? MoveTables.changesRight(row) : MoveTables.changesLeft(row)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* Description: returns every key that changes a packed grid, looking up
+     *              each row and each column once in the MoveTables
+     * Input: the packed grid
+     * Output: a mask with bit k set when KEYS.charAt(k) changes the grid: 1
+     *         for 'w', 2 for 'a', 4 for 's' and 8 for 'd'
+     */
+    public static int legalMoves(long board) {
+        long columns = transpose(board);
+        int rows = MoveTables.changes(rowAt(board, 0)) | MoveTables.changes(rowAt(board, 1))
+            | MoveTables.changes(rowAt(board, 2)) | MoveTables.changes(rowAt(board, 3));
+        int cols = MoveTables.changes(rowAt(columns, 0)) | MoveTables.changes(rowAt(columns, 1))
+            | MoveTables.changes(rowAt(columns, 2)) | MoveTables.changes(rowAt(columns, 3));
+        return (rows & 1) << 1 | (rows & 2) << 2 | (cols & 1) << 2 | (cols & 2) >> 1;
+    }
+
+    /* Description: returns the bit of a key in a mask of legalMoves
+     * Input: the character key
+     * Output: the bit of the key, 0 if the key is not a direction
+     */
+    public static int keyBit(char key) {
+        int k = KEYS.indexOf(key);
+        return k < 0 ? 0 : 1 << k;
+    }
+
+    /* Description: returns the 16-bit row i of a packed grid
+     * Input: the packed grid and the index of the row
+     * Output: the packed row
+     */
+    public static int rowAt(long board, int i) {
+        return (int) (board >>> (16 * i)) & ROW_MASK;
+    }
+
+    /* Description: moves every row of a packed grid towards column 0
+     * Input: the packed grid
+     * Output: the moved grid
+     */
+    private static long moveLeft(long board) {
+        return (long) MoveTables.left(rowAt(board, 0))
+            | (long) MoveTables.left(rowAt(board, 1)) << 16
+            | (long) MoveTables.left(rowAt(board, 2)) << 32
+            | (long) MoveTables.left(rowAt(board, 3)) << 48;
+    }
+
+    /* Description: moves every row of a packed grid towards column 3
+     * Input: the packed grid
+     * Output: the moved grid
+     */
+    private static long moveRight(long board) {
+        return (long) MoveTables.right(rowAt(board, 0))
+            | (long) MoveTables.right(rowAt(board, 1)) << 16
+            | (long) MoveTables.right(rowAt(board, 2)) << 32
+            | (long) MoveTables.right(rowAt(board, 3)) << 48;
+    }
+}
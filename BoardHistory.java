@@ -0,0 +1,147 @@
+/*
+ *
+ * Description: BoardHistory class that keeps the positions of a 4x4 game for
+ *              undo and redo. A snapshot is the packed grid, the number of
+ *              moves and the score, 16 bytes in three primitive arrays used as
+ *              a ring. When the ring is full the oldest snapshot is dropped.
+ *              Recording, undoing and redoing never allocate and take constant
+ *              time.
+ *
+ */
+
+public class BoardHistory {
+    // number of snapshots kept when no capacity is given
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    //the packed grid of every snapshot
+    private long[] states;
+    //the number of moves of every snapshot
+    private int[] moves;
+    //the score of every snapshot
+    private int[] scores;
+    //capacity - 1, to turn a snapshot number into a slot of the ring
+    private int mask;
+    //number of the oldest snapshot that is still kept
+    private long first;
+    //number of the current snapshot, -1 before the first one
+    private long current;
+    //number of the newest snapshot that can be redone
+    private long last;
+
+    /* Description: Default constructor for a history of DEFAULT_CAPACITY
+     *              snapshots
+     * Input: none
+     * Output: none
+     */
+    public BoardHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /* Description: constructor for a history of at least the given number of
+     *              snapshots, rounded up to a power of two
+     * Input: the capacity, at least 2
+     * Output: none
+     */
+    public BoardHistory(int capacity) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 2 and 2^30");
+        }
+        int slots = Integer.highestOneBit(capacity - 1) << 1;
+        states = new long[slots];
+        moves = new int[slots];
+        scores = new int[slots];
+        mask = slots - 1;
+        clear();
+    }
+
+    /* Description: forgets every snapshot
+     * Input: none
+     * Output: none
+     */
+    public void clear() {
+        first = 0;
+        current = -1;
+        last = -1;
+    }
+
+    /* Description: adds a snapshot after the current one, dropping the snapshots
+     *              that could have been redone
+     * Input: the packed grid, the number of moves and the score
+     * Output: none
+     */
+    public void record(long state, int numberOfMoves, int score) {
+        current++;
+        last = current;
+        if (current - first > mask) {
+            first++;
+        }
+        int slot = (int) current & mask;
+        states[slot] = state;
+        moves[slot] = numberOfMoves;
+        scores[slot] = score;
+    }
+
+    /* Description: returns true if there is a snapshot before the current one
+     * Input: none
+     * Output: true if undo can go back and false otherwise
+     */
+    public boolean canUndo() {
+        return current > first;
+    }
+
+    /* Description: returns true if a snapshot was undone and not replaced since
+     * Input: none
+     * Output: true if redo can go forward and false otherwise
+     */
+    public boolean canRedo() {
+        return current < last;
+    }
+
+    /* Description: goes back to the snapshot before the current one
+     * Input: none
+     * Output: true if it went back and false if there is nothing to undo
+     */
+    public boolean undo() {
+        if (!canUndo()) {
+            return false;
+        }
+        current--;
+        return true;
+    }
+
+    /* Description: goes forward to the snapshot that was last undone
+     * Input: none
+     * Output: true if it went forward and false if there is nothing to redo
+     */
+    public boolean redo() {
+        if (!canRedo()) {
+            return false;
+        }
+        current++;
+        return true;
+    }
+
+    /* Description: getter to get the packed grid of the current snapshot
+     * Input: none
+     * Output: the packed grid of tile exponents
+     */
+    public long getState() {
+        return states[(int) current & mask];
+    }
+
+    /* Description: getter to get the number of moves of the current snapshot
+     * Input: none
+     * Output: the number of moves
+     */
+    public int getNumberOfMoves() {
+        return moves[(int) current & mask];
+    }
+
+    /* Description: getter to get the score of the current snapshot
+     * Input: none
+     * Output: the score
+     */
+    public int getScore() {
+        return scores[(int) current & mask];
+    }
+}
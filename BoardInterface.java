@@ -1,17 +1,12 @@
 /* 
  * 
- * Description: the API for the Board Class
+ * Description: the API for the rules of the 2048 game, shared by the Board
+ *              Class, the BitBoard Class and the GridBoard Class
  * 
  */
 
 public interface BoardInterface {
     
-    /* Description: draws out the Tiles of the board
-     * Input: none
-     * Output: none
-     */ 
-    void draw();
-    
     /* Description: updates the 2D array so that the position matches the tiles new
      *              position after all moving in the direction described by the key.
      *              Also creates a random new tile of either 2 or 4 and places it at 
@@ -38,19 +33,69 @@ public interface BoardInterface {
      */
     boolean hasWonGame();
     
-    /* Description: when 2048 tile enters the game and the user has won, this screen
-     *              will appear and presents the number of moves it took with a 
-     *              victory message
+    /* Description: getter to get the largest tile on the board, kept up to date
+     *              as the board changes
      * Input: none
-     * Output: none
+     * Output: the number of the largest tile, 0 if the board is empty
      */
-    void winDashboard();
+    int getMaxTile();
     
-    /* Description: when board is full and no more moves can be made then the game 
-     *              is over and this will appear on the screen with the number of 
-     *              moves the user took
+    /* Description: getter to get the number of tiles on the board, kept up to 
+     *              date as the board changes
      * Input: none
-     * Output: none
+     * Output: the number of occupied cells
+     */
+    int getNumberOfTiles();
+    
+    /* Description: getter to get the number of cells per column / row
+     * Input: none
+     * Output: the size of the grid
+     */
+    int getSize();
+    
+    /* Description: returns the number on the tile at row i and column j
+     * Input: int i, int j identifies the cell
+     * Output: the number of the tile, 0 if the cell is empty
+     */
+    int getTile(int i, int j);
+    
+    /* Description: getter to get the cell filled by the last new tile
+     * Input: none
+     * Output: the index getSize() * i + j of the cell, or -1 if no tile was 
+     *         added yet
+     */
+    int getLastSpawn();
+    
+    /* Description: getter to get the number of moves made so far
+     * Input: none
+     * Output: the number of moves
+     */
+    int getNumberOfMoves();
+    
+    /* Description: getter to get the sum of every tile created by a merge
+     * Input: none
+     * Output: the score
+     */
+    int getScore();
+    
+    /* Description: returns true if the key pressed is able to be processed. For
+     *              example a possible move can be made.
+     * Input: the character of the key that has been pressed
+     * Output: returns true if the key changes the board and false otherwise
+     */
+    boolean isKeyPermitted(char key);
+    
+    /* Description: returns every key that changes the board, found in one pass
+     *              over the board
+     * Input: none
+     * Output: a mask with bit k set when "wasd".charAt(k) changes the board
+     */
+    int legalMoves();
+    
+    /* Description: returns true while at least one key can change the board, 
+     *              kept up to date as the board changes
+     * Input: none
+     * Output: true if a tile can still move or merge and false otherwise
      */
-    void lostDashboard();
+    boolean hasMovesLeft();
 }
\ No newline at end of file
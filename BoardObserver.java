@@ -0,0 +1,31 @@
+/* 
+ * 
+ * Description: the API for anything that follows the moves played on a Board,
+ *              such as a renderer. The Board calls these after its state has
+ *              changed.
+ * 
+ */
+
+public interface BoardObserver {
+    
+    /* Description: called after the tiles moved and merged in the direction of 
+     *              the key, before the new tile of the move is reported
+     * Input: the character key which describes the direction of the move
+     * Output: none
+     */
+    void boardShifted(char key);
+    
+    /* Description: called after a new tile of either 2 or 4 was placed on the 
+     *              board
+     * Input: int i, int j identifies the cell of the new tile, and its number
+     * Output: none
+     */
+    void tileSpawned(int i, int j, int number);
+    
+    /* Description: called after the board jumped to another position, for 
+     *              example by undo or redo, instead of playing a move
+     * Input: none
+     * Output: none
+     */
+    void boardReset();
+}
@@ -0,0 +1,386 @@
+/*
+ *
+ * Description: BoardRenderer class that draws a Board with PennDraw. It keeps one
+ *              Tile per occupied cell and, as a BoardObserver, moves them to
+ *              their new cells as soon as a move is made, without drawing. The
+ *              game loop then calls animate once per frame, which places every
+ *              Tile from the progress of one AnimationTimeline: the Tiles
+ *              slide in a straight line from where they were drawn when the
+ *              move was made to their cells, then the new tiles appear. The
+ *              progress comes from the time that has passed, so a move looks
+ *              the same at any frame rate. Moves that arrive during an
+ *              animation restart it from where the Tiles are drawn, so any
+ *              number of moves is shown as one animation to the final
+ *              position. Colors and texts are cached, so drawing a frame
+ *              creates no new objects.
+ *
+ */
+
+import java.awt.Color;
+
+public class BoardRenderer implements BoardObserver {
+    //the board that is drawn
+    private Board game;
+    //array of Tiles drawn for the current grid
+    private Tile[][] board;
+    //Tiles that are sliding into a cell to merge with the Tile already there
+    private Tile[][] merging;
+    // the x-position of each corresponding Tile in the 2D array board
+    private int[] xCoord;
+    // the y-position of each corresponding Tile in the 2D array board
+    private int[] yCoord;
+    // number of Tiles per column / row
+    private int size;
+    //half the width of a Tile
+    private double dimension;
+    //font size of the numbers on the Tiles
+    private int fontSize;
+    // width of the grid that the Tiles are drawn in
+    private static final int BOARD_WIDTH = 480;
+    // left and bottom edge of the grid
+    private static final int BOARD_EDGE = 10;
+    // font size of the numbers on the Tiles of a 4x4 board
+    private static final int TILE_FONT_SIZE = 30;
+    // time the Tiles take to slide to their cells after a move, in nanoseconds
+    private static final long SLIDE_NANOS = 200000000L;
+    // time a new Tile takes to appear after the slide, in nanoseconds
+    private static final long APPARITION_NANOS = 140000000L;
+    //true when the board changed since it was last drawn
+    private boolean needsRedraw;
+    //times the slide of the Tiles and the apparition of the new ones
+    private AnimationTimeline timeline;
+    //where each Tile in board and merging was drawn when its slide started
+    private int[][] xStart;
+    private int[][] yStart;
+    private int[][] xMergingStart;
+    private int[][] yMergingStart;
+    //dashboard text for every possible number of tiles
+    private String[] tilesText;
+    //dashboard text for the number of moves, rebuilt when the number changes
+    private String movesText;
+    //win or loss screen text for the number of moves
+    private String finalMovesText;
+    //number of moves that movesText shows
+    private int movesShown;
+    //dashboard text of the hint for the current position, null if none is shown
+    private String hintText;
+    // color of the screen shown when the user has won
+    private static final Color WIN_COLOR = new Color(255, 251, 239, 230);
+    // color of the screen shown when the game is over
+    private static final Color LOST_COLOR = new Color(160, 14, 1, 230);
+    // the text of the hint for each key, in the order of BitBoard.KEYS
+    private static final String[] HINT_TEXTS = {"Hint: up", "Hint: left", "Hint: down", "Hint: right"};
+    // the text shown when a hint is asked for before the search found one
+    private static final String NO_HINT_TEXT = "Hint: thinking";
+
+    /* Description: constructor that creates a Tile for every tile of the board
+     * Input: the board to draw
+     * Output: none
+     */
+    public BoardRenderer(Board game) {
+        this.game = game;
+        size = game.getSize();
+        int spacing = BOARD_WIDTH / size;
+        xCoord = new int[size];
+        yCoord = new int[size];
+        for (int k = 0; k < size; k++) {
+            xCoord[k] = BOARD_EDGE + spacing / 2 + k * spacing;
+            yCoord[k] = xCoord[k];
+        }
+        dimension = (double) Tile.DIMENSION * Board.DEFAULT_SIZE / size;
+        fontSize = TILE_FONT_SIZE * Board.DEFAULT_SIZE / size;
+        board = new Tile[size][size];
+        merging = new Tile[size][size];
+        xStart = new int[size][size];
+        yStart = new int[size][size];
+        xMergingStart = new int[size][size];
+        yMergingStart = new int[size][size];
+        timeline = new AnimationTimeline(SLIDE_NANOS, APPARITION_NANOS);
+        tilesText = new String[size * size + 1];
+        for (int n = 0; n < tilesText.length; n++) {
+            tilesText[n] = "Number Of Tiles:" + n;
+        }
+        movesShown = -1;
+        boardReset();
+    }
+
+    /* Description: draws out the Tiles of the board
+     * Input: none
+     * Output: none
+     */
+    public void draw() {
+        needsRedraw = false;
+        PennDraw.setFontSize(fontSize);
+        for (int i = 0; i < board.length; i++) {
+            for (int j = 0; j < board[i].length; j++) {
+                if (merging[i][j] != null) {
+                    merging[i][j].draw();
+                }
+                if (board[i][j] != null) {
+                    board[i][j].draw();
+                }
+            }
+        }
+    }
+
+    /* Description: moves and merges the Tiles into the cells they end up in
+     *              after the move and starts sliding them there from where they
+     *              are drawn. Tiles still appearing from an earlier move are
+     *              grown at once, so that only the new tile of this move
+     *              appears from nothing.
+     * Input: the character key which describes the direction of the move
+     * Output: none
+     */
+    public void boardShifted(char key) {
+        needsRedraw = true;
+        hintText = null;
+        motionOfKey(key);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (board[i][j] != null) {
+                    if (board[i][j].isAppearing()) {
+                        board[i][j].grow(1);
+                    }
+                    xStart[i][j] = board[i][j].getX();
+                    yStart[i][j] = board[i][j].getY();
+                }
+                if (merging[i][j] != null) {
+                    if (merging[i][j].isAppearing()) {
+                        merging[i][j].grow(1);
+                    }
+                    xMergingStart[i][j] = merging[i][j].getX();
+                    yMergingStart[i][j] = merging[i][j].getY();
+                }
+            }
+        }
+        timeline.restart(System.nanoTime());
+    }
+
+    /* Description: adds a Tile for the new tile, which appears once the other
+     *              Tiles stopped sliding
+     * Input: int i, int j identifies the cell of the new tile, and its number
+     * Output: none
+     */
+    public void tileSpawned(int i, int j, int number) {
+        board[i][j] = new Tile(xCoord[j], yCoord[i], number, dimension);
+        board[i][j].startApparition();
+        xStart[i][j] = xCoord[j];
+        yStart[i][j] = yCoord[i];
+        if (!timeline.isRunning()) {
+            timeline.restart(System.nanoTime());
+        }
+        needsRedraw = true;
+    }
+
+    /* Description: creates a Tile for every tile of the board, replacing the
+     *              Tiles of the old position after an undo or redo
+     * Input: none
+     * Output: none
+     */
+    public void boardReset() {
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                merging[i][j] = null;
+                board[i][j] = null;
+                if (game.getTile(i, j) != 0) {
+                    board[i][j] = new Tile(xCoord[j], yCoord[i], game.getTile(i, j), dimension);
+                }
+            }
+        }
+        timeline.stop();
+        hintText = null;
+        needsRedraw = true;
+    }
+
+    /* Description: places every Tile for the frame drawn at the given time, in
+     *              one pass over the grid. Each Tile is put at its point on the
+     *              line from where its slide started to its cell, so it lands
+     *              on the cell exactly; once the slide is over the Tiles that
+     *              slid into a merge are dropped and the new Tiles grow.
+     * Input: the time of the frame, from System.nanoTime()
+     * Output: none
+     */
+    public void animate(long now) {
+        if (!timeline.isRunning()) {
+            return;
+        }
+        double slide = timeline.slideProgress(now);
+        double apparition = timeline.apparitionProgress(now);
+        timeline.advance(now);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                Tile tile = board[i][j];
+                if (tile != null) {
+                    tile.setX(between(xStart[i][j], xCoord[j], slide));
+                    tile.setY(between(yStart[i][j], yCoord[i], slide));
+                    if (tile.isAppearing()) {
+                        tile.grow(apparition);
+                    }
+                }
+                if (merging[i][j] != null) {
+                    if (slide < 1) {
+                        merging[i][j].setX(between(xMergingStart[i][j], xCoord[j], slide));
+                        merging[i][j].setY(between(yMergingStart[i][j], yCoord[i], slide));
+                    } else {
+                        merging[i][j] = null;
+                    }
+                }
+            }
+        }
+        needsRedraw = true;
+    }
+
+    /* Description: returns the point a part of the way from one coordinate to
+     *              another
+     * Input: the start and end coordinates and the part, from 0 to 1
+     * Output: the coordinate, rounded to the nearest whole number
+     */
+    private static int between(int from, int to, double part) {
+        return from + (int) Math.round((to - from) * part);
+    }
+
+    /* Description: shows a hint on the dashboard until the next move
+     * Input: the character key of the suggested move, or 0 if there is none yet
+     * Output: none
+     */
+    public void setHint(char key) {
+        int k = BitBoard.KEYS.indexOf(key);
+        hintText = k < 0 ? NO_HINT_TEXT : HINT_TEXTS[k];
+        needsRedraw = true;
+    }
+
+    /* Description: returns true when the board changed since it was last drawn
+     *              or an animation is running
+     * Input: none
+     * Output: true if a new frame should be drawn and false otherwise
+     */
+    public boolean needsRedraw() {
+        return needsRedraw || timeline.isRunning();
+    }
+
+    /* Description: returns the row of the k-th cell of a line, counting from the
+     *              edge that the key moves the tiles towards
+     * Input: the character key, the index of the line and the position k on it
+     * Output: the row in the 2D array board
+     */
+    private int rowOf(char key, int line, int k) {
+        if (key == 's') {
+            return k;
+        } else if (key == 'w') {
+            return size - 1 - k;
+        }
+        return line;
+    }
+
+    /* Description: returns the column of the k-th cell of a line, counting from
+     *              the edge that the key moves the tiles towards
+     * Input: the character key, the index of the line and the position k on it
+     * Output: the column in the 2D array board
+     */
+    private int colOf(char key, int line, int k) {
+        if (key == 'a') {
+            return k;
+        } else if (key == 'd') {
+            return size - 1 - k;
+        }
+        return line;
+    }
+
+    /* Description: moves every Tile in the 2D array board to the cell it ends up
+     *              in after the move described by the key. The numbers come from
+     *              the board, which has already played the move: a Tile whose
+     *              cell now holds a larger number merged with the next Tile of
+     *              its line, which goes into merging at that cell and is drawn
+     *              until the slide ends.
+     * Input: the character key which describes the direction of movement
+     * Output: none
+     */
+    private void motionOfKey(char key) {
+        for (int line = 0; line < size; line++) {
+            int position = 0;
+            Tile merged = null;
+            for (int k = 0; k < size; k++) {
+                Tile current = board[rowOf(key, line, k)][colOf(key, line, k)];
+                if (current == null) {
+                    continue;
+                }
+                board[rowOf(key, line, k)][colOf(key, line, k)] = null;
+                if (merged != null) {
+                    merging[rowOf(key, line, position - 1)][colOf(key, line, position - 1)] = current;
+                    merged = null;
+                    continue;
+                }
+                int i = rowOf(key, line, position);
+                int j = colOf(key, line, position);
+                board[i][j] = current;
+                if (game.getTile(i, j) != current.getNum()) {
+                    current.setNum(game.getTile(i, j));
+                    merged = current;
+                }
+                position++;
+            }
+        }
+    }
+
+    /* Description: draws out the dashboard including the number of tiles at the top
+     * Input: none
+     * Ouput: none
+     */
+    public void drawDashboard() {
+        PennDraw.setFontSize(12);
+        PennDraw.setPenColor(PennDraw.BLACK);
+        PennDraw.text(225, 560, tilesText[game.getNumberOfTiles()]);
+        updateMovesText();
+        PennDraw.text(225, 600, movesText);
+        if (hintText != null) {
+            PennDraw.text(400, 560, hintText);
+        }
+    }
+
+    /* Description: rebuilds the texts showing the number of moves, only when the
+     *              number changed since they were last built
+     * Input: none
+     * Output: none
+     */
+    private void updateMovesText() {
+        if (movesShown != game.getNumberOfMoves()) {
+            movesShown = game.getNumberOfMoves();
+            movesText = "Moves:" + movesShown;
+            finalMovesText = "Number of Moves:" + movesShown;
+        }
+    }
+
+    /* Description: when 2048 tile enters the game and the user has won, this screen
+     *              will appear and presents the number of moves it took with a
+     *              victory message
+     * Input: none
+     * Output: none
+     */
+    public void winDashboard() {
+        PennDraw.setPenColor(WIN_COLOR);
+        PennDraw.filledRectangle(250, 300, 275, 325);
+        PennDraw.setFontSize(32);
+        PennDraw.setPenColor(PennDraw.BLACK);
+        PennDraw.text(250, 350, "Congrations! You won!");
+        PennDraw.setFontSize(16);
+        updateMovesText();
+        PennDraw.text(250, 275, finalMovesText);
+    }
+
+    /* Description: when board is full and no more moves can be made then the game
+     *              is over and this will appear on the screen with the number of
+     *              moves the user took
+     * Input: none
+     * Output: none
+     */
+    public void lostDashboard() {
+        PennDraw.setPenColor(LOST_COLOR);
+        PennDraw.filledRectangle(250, 300, 275, 325);
+        PennDraw.setFontSize(32);
+        PennDraw.setPenColor(PennDraw.BLACK);
+        PennDraw.text(250, 350, "Game Over!");
+        PennDraw.setFontSize(16);
+        updateMovesText();
+        PennDraw.text(250, 275, finalMovesText);
+    }
+}
\ No newline at end of file
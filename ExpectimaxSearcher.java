@@ -0,0 +1,300 @@
+/*
+ *
+ * Description: ExpectimaxSearcher class that suggests the next move of a game.
+ *              It looks ahead over the four keys and over every new 2 or 4 tile
+ *              that can follow them, scoring the positions at the end with a
+ *              heuristic. Searches get deeper one move at a time until the time
+ *              budget runs out, and unlikely branches are cut off early. The
+ *              heuristic scores mirrored and rotated positions the same, so
+ *              they share one entry of the transposition table under their
+ *              canonical form. One searcher should only be used by one thread
+ *              at a time.
+ *
+ */
+
+public class ExpectimaxSearcher {
+    // the keys that the search tries
+    public static final String KEYS = BitBoard.KEYS;
+    // deepest search, in moves, when none is given
+    public static final int DEFAULT_MAX_DEPTH = 6;
+    // branches less likely than this are scored by the heuristic right away
+    public static final double DEFAULT_PROBABILITY_THRESHOLD = 0.0001;
+    // number of slots of the transposition table as a power of two
+    private static final int TABLE_SLOTS_LOG2 = 20;
+    // chance that a new tile is a 2, matching BitBoard.newTile
+    private static final double TWO_PROBABILITY = 0.5;
+    // number of searched positions between two looks at the clock
+    private static final int CLOCK_INTERVAL = 1024;
+    // heuristic score of every possible row, see rowHeuristic
+    private static final float[] ROW_HEURISTIC = new float[MoveTables.ROWS];
+
+    static {
+        for (int row = 0; row < MoveTables.ROWS; row++) {
+            ROW_HEURISTIC[row] = rowHeuristic(row);
+        }
+    }
+
+    //the positions already searched
+    private TranspositionTable table;
+    //deepest search in moves
+    private int maxDepth;
+    //branches less likely than this are not searched any deeper
+    private double probabilityThreshold;
+    //System.nanoTime() after which the current search gives up
+    private long deadline;
+    //number of positions searched since the last look at the clock
+    private int sinceClock;
+    //true once the current search ran out of time
+    private boolean timedOut;
+    //set by another thread to stop the current search early
+    private volatile boolean cancelled;
+
+    /* Description: Default constructor for a searcher with the default depth and
+     *              probability threshold
+     * Input: none
+     * Output: none
+     */
+    public ExpectimaxSearcher() {
+        this(DEFAULT_MAX_DEPTH, DEFAULT_PROBABILITY_THRESHOLD);
+    }
+
+    /* Description: constructor for a searcher with the given limits
+     * Input: the deepest search in moves, and the probability under which a
+     *        branch is not searched any deeper
+     * Output: none
+     */
+    public ExpectimaxSearcher(int maxDepth, double probabilityThreshold) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("maxDepth must be at least 1");
+        }
+        this.maxDepth = maxDepth;
+        this.probabilityThreshold = probabilityThreshold;
+        table = new TranspositionTable(TABLE_SLOTS_LOG2);
+    }
+
+    /* Description: suggests the next move for the board
+     * Input: the board and the time the search may take in nanoseconds
+     * Output: the suggested move, or null if the game is over
+     */
+    public SearchResult search(Board board, long budgetNanos) {
+        return search(board.getState(), budgetNanos);
+    }
+
+    /* Description: suggests the next move for a packed grid. The search goes one
+     *              move deeper at a time and returns the result of the deepest
+     *              search that finished within the budget; the first one always
+     *              finishes.
+     * Input: the packed grid and the time the search may take in nanoseconds
+     * Output: the suggested move, or null if no key can move the grid
+     */
+    public SearchResult search(long board, long budgetNanos) {
+        deadline = System.nanoTime() + budgetNanos;
+        timedOut = false;
+        SearchResult best = null;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            SearchResult result = searchToDepth(board, depth);
+            if (result == null) {
+                return null;
+            }
+            if (timedOut && best != null) {
+                break;
+            }
+            best = result;
+            if (timedOut) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /* Description: runs a single search of the given depth, for callers that
+     *              deepen the search themselves
+     * Input: the packed grid, the depth in moves and the time the search may
+     *        take in nanoseconds
+     * Output: the suggested move, or null if no key can move the grid or the
+     *         search ran out of time or was cancelled before it finished
+     */
+    public SearchResult searchDepth(long board, int depth, long budgetNanos) {
+        deadline = System.nanoTime() + budgetNanos;
+        timedOut = false;
+        SearchResult result = searchToDepth(board, depth);
+        return timedOut ? null : result;
+    }
+
+    /* Description: makes the running search, and every search started until
+     *              clearCancel is called, stop as if its time had run out. It
+     *              may be called from any thread.
+     * Input: none
+     * Output: none
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /* Description: lets searches run again after cancel
+     * Input: none
+     * Output: none
+     */
+    public void clearCancel() {
+        cancelled = false;
+    }
+
+    /* Description: forgets every position searched so far
+     * Input: none
+     * Output: none
+     */
+    public void clearTable() {
+        table.clear();
+    }
+
+    /* Description: getter to get the deepest search in moves
+     * Input: none
+     * Output: the maximum depth
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /* Description: scores every key searching the given number of moves ahead
+     * Input: the packed grid and the depth in moves
+     * Output: the best move, or null if no key can move the grid
+     */
+    private SearchResult searchToDepth(long board, int depth) {
+        char bestKey = 0;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int legal = BitBoard.legalMoves(board); legal != 0; legal &= legal - 1) {
+            char key = KEYS.charAt(Integer.numberOfTrailingZeros(legal));
+            double value = chanceNode(BitBoard.move(board, key), depth - 1, 1.0);
+            if (value > bestValue) {
+                bestValue = value;
+                bestKey = key;
+            }
+        }
+        if (bestKey == 0) {
+            return null;
+        }
+        return new SearchResult(bestKey, bestValue, depth);
+    }
+
+    /* Description: returns the value of the best key for a position
+     * Input: the packed grid, the moves left to search and the probability of
+     *        reaching the position
+     * Output: the expected value, 0 if no key can move the grid
+     */
+    private double maxNode(long board, int depth, double probability) {
+        double best = 0;
+        for (int legal = BitBoard.legalMoves(board); legal != 0; legal &= legal - 1) {
+            long moved = BitBoard.move(board, KEYS.charAt(Integer.numberOfTrailingZeros(legal)));
+            best = Math.max(best, chanceNode(moved, depth - 1, probability));
+        }
+        return best;
+    }
+
+    /* Description: returns the value of a position averaged over every new tile
+     *              that can appear in it
+     * Input: the packed grid after a move, the moves left to search and the
+     *        probability of reaching the position
+     * Output: the expected value
+     */
+    private double chanceNode(long board, int depth, double probability) {
+        if (depth <= 0 || probability < probabilityThreshold || outOfTime()) {
+            return evaluate(board);
+        }
+        long key = Symmetry.canonical(board);
+        float stored = table.get(key, depth);
+        if (!Float.isNaN(stored)) {
+            return stored;
+        }
+        int empty = BitBoard.emptyMask(board);
+        int count = Integer.bitCount(empty);
+        if (count == 0) {
+            return evaluate(board);
+        }
+        double tileProbability = probability / count;
+        double total = 0;
+        for (int cells = empty; cells != 0; cells &= cells - 1) {
+            int shift = BitBoard.CELL_BITS * Integer.numberOfTrailingZeros(cells);
+            total += TWO_PROBABILITY
+                * maxNode(board | (1L << shift), depth, tileProbability * TWO_PROBABILITY);
+            total += (1 - TWO_PROBABILITY)
+                * maxNode(board | (2L << shift), depth, tileProbability * (1 - TWO_PROBABILITY));
+        }
+        double value = total / count;
+        if (!timedOut) {
+            table.put(key, depth, (float) value);
+        }
+        return value;
+    }
+
+    /* Description: returns true once the search has used up its time or was
+     *              cancelled, looking at the clock only every few positions
+     * Input: none
+     * Output: true if the search should stop
+     */
+    private boolean outOfTime() {
+        if (!timedOut && ++sinceClock >= CLOCK_INTERVAL) {
+            sinceClock = 0;
+            timedOut = cancelled || System.nanoTime() > deadline;
+        }
+        return timedOut;
+    }
+
+    /* Description: scores a position by adding up the heuristic of its rows and
+     *              of its columns
+     * Input: the packed grid
+     * Output: the heuristic score, higher is better
+     */
+    public static double evaluate(long board) {
+        long columns = BitBoard.transpose(board);
+        double total = 0;
+        for (int i = 0; i < BitBoard.GRID; i++) {
+            total += ROW_HEURISTIC[BitBoard.rowAt(board, i)];
+            total += ROW_HEURISTIC[BitBoard.rowAt(columns, i)];
+        }
+        return total;
+    }
+
+    /* Description: scores a single row, rewarding empty cells, neighbours that can
+     *              merge and tiles that grow steadily towards one edge, and
+     *              punishing large tiles in general. The same score is used for
+     *              both directions of a row, so mirrored positions score the same.
+     * Input: the packed row
+     * Output: the heuristic score of the row
+     */
+    private static float rowHeuristic(int row) {
+        int empty = 0;
+        int merges = 0;
+        int run = 0;
+        int previous = 0;
+        double sum = 0;
+        double towardsLeft = 0;
+        double towardsRight = 0;
+        for (int j = 0; j < BitBoard.GRID; j++) {
+            int exponent = BitBoard.exponentAt(row, j);
+            sum += Math.pow(exponent, 3.5);
+            if (exponent == 0) {
+                empty++;
+                continue;
+            }
+            if (exponent == previous) {
+                run++;
+            } else {
+                merges += run > 0 ? run + 1 : 0;
+                run = 0;
+            }
+            previous = exponent;
+        }
+        merges += run > 0 ? run + 1 : 0;
+        for (int j = 1; j < BitBoard.GRID; j++) {
+            double before = Math.pow(BitBoard.exponentAt(row, j - 1), 4);
+            double after = Math.pow(BitBoard.exponentAt(row, j), 4);
+            if (before > after) {
+                towardsLeft += before - after;
+            } else {
+                towardsRight += after - before;
+            }
+        }
+        return (float) (200000 + 270 * empty + 700 * merges
+                        - 47 * Math.min(towardsLeft, towardsRight) - 11 * sum);
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ *
+ * Description: FrameExporter class that turns a recorded game into numbered PNG
+ *              images, one per position, without opening a window. The
+ *              positions are rebuilt first by replaying the moves of the
+ *              GameRecord with the packed 4x4 moves that a Board plays, which
+ *              takes microseconds. The frames are then drawn offscreen with
+ *              the colors and labels of TileStyle, in the layout of the
+ *              BoardRenderer, with antialiased text, and written with ImageIO
+ *              by one thread per core. Every thread takes chunks of frames and
+ *              draws all of them into its own BufferedImage. The command line
+ *              keeps ImageIO from writing every PNG through a temporary file.
+ *              A frame takes 10 to 20 ms of one core, most of it compressing
+ *              the PNG, so a game of 10,000 moves is exported in seconds on a
+ *              machine with several cores rather than in the hour its
+ *              animations would take.
+ *              Usage: java FrameExporter recordFile outputDirectory [game] [threads]
+ *
+ */
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+
+public class FrameExporter {
+    // width of a frame in pixels
+    public static final int WIDTH = 500;
+    // height of a frame in pixels, the board and a line of text above it
+    public static final int HEIGHT = 560;
+    // height of the line of text above the board in pixels
+    private static final int HEADER = 60;
+    // width of the grid of tiles inside the board in pixels
+    private static final int BOARD_WIDTH = 480;
+    // width of a tile in pixels
+    private static final int TILE_WIDTH = 100;
+    // size of the font of a tile with up to 4 digits
+    private static final int TILE_FONT_SIZE = 30;
+    // number of frames a thread takes at a time
+    private static final int CHUNK = 16;
+
+    //the positions of the game, states[k] after k moves
+    private long[] states;
+    //the score after each number of moves
+    private int[] scores;
+    //where the frames are written
+    private Path directory;
+    //index of the next frame that no thread has taken
+    private AtomicInteger nextFrame;
+
+    /* Description: constructor for an exporter of the current game of a reader,
+     *              which replays the game at once
+     * Input: the reader positioned on the game and the directory of the frames
+     * Output: none
+     */
+    public FrameExporter(GameRecordReader reader, Path directory) {
+        int moves = reader.getNumberOfMoves();
+        states = new long[moves + 1];
+        scores = new int[moves + 1];
+        states[0] = reader.getInitialState();
+        for (int k = 0; k < moves; k++) {
+            byte move = reader.getMove(k);
+            scores[k + 1] = scores[k] + BitBoard.scoreOf(states[k], GameRecord.keyOf(move));
+            states[k + 1] = GameRecord.apply(states[k], move);
+        }
+        this.directory = directory;
+    }
+
+    /* Description: getter to get the number of frames, one more than the number
+     *              of moves
+     * Input: none
+     * Output: the number of frames
+     */
+    public int getNumberOfFrames() {
+        return states.length;
+    }
+
+    /* Description: returns the file of a frame, numbered with enough digits for
+     *              the files to sort in the order of the game
+     * Input: the index of the frame
+     * Output: the path of the file
+     */
+    public Path frameFile(int frame) {
+        int digits = Math.max(5, Integer.toString(states.length - 1).length());
+        return directory.resolve(String.format("frame-%0" + digits + "d.png", frame));
+    }
+
+    /* Description: draws and writes every frame on the given number of threads
+     * Input: the number of threads
+     * Output: none
+     */
+    public void export(int threads) throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        nextFrame = new AtomicInteger();
+        Worker[] workers = new Worker[threads];
+        Thread[] running = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Worker();
+            running[t] = new Thread(workers[t], "frames-" + t);
+            running[t].start();
+        }
+        IOException failure = null;
+        for (int t = 0; t < threads; t++) {
+            running[t].join();
+            if (failure == null) {
+                failure = workers[t].failure;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /* Description: draws one position of the game
+     * Input: the graphics of the image, the fonts from makeFonts and the index
+     *        of the frame
+     * Output: none
+     */
+    public void draw(Graphics2D graphics, Font[] fonts, int frame) {
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, WIDTH, HEIGHT);
+        graphics.setColor(Color.BLACK);
+        graphics.setFont(fonts[0]);
+        graphics.drawString("Move " + frame + " of " + (states.length - 1)
+                            + "    Score " + scores[frame], 10, HEADER / 2);
+        graphics.setColor(Color.LIGHT_GRAY);
+        graphics.fillRect(0, HEADER, WIDTH - 1, WIDTH - 1);
+        graphics.setColor(Color.BLACK);
+        graphics.drawRect(0, HEADER, WIDTH - 1, WIDTH - 1);
+        int spacing = BOARD_WIDTH / BitBoard.GRID;
+        int edge = (WIDTH - BOARD_WIDTH) / 2 + (spacing - TILE_WIDTH) / 2;
+        long state = states[frame];
+        for (int i = 0; i < BitBoard.GRID; i++) {
+            for (int j = 0; j < BitBoard.GRID; j++) {
+                int exponent = BitBoard.exponentAt(state, BitBoard.GRID * i + j);
+                if (exponent == 0) {
+                    continue;
+                }
+                int number = 1 << exponent;
+                int x = edge + spacing * j;
+                int y = HEADER + edge + spacing * (BitBoard.GRID - 1 - i);
+                graphics.setColor(TileStyle.colorOf(number));
+                graphics.fillRect(x, y, TILE_WIDTH, TILE_WIDTH);
+                graphics.setColor(Color.BLACK);
+                graphics.drawRect(x, y, TILE_WIDTH, TILE_WIDTH);
+                String label = TileStyle.labelOf(number);
+                graphics.setFont(fonts[exponent]);
+                FontMetrics metrics = graphics.getFontMetrics();
+                graphics.setColor(TileStyle.textColorOf(number));
+                graphics.drawString(label, x + (TILE_WIDTH - metrics.stringWidth(label)) / 2,
+                                    y + (TILE_WIDTH - metrics.getHeight()) / 2 + metrics.getAscent());
+            }
+        }
+    }
+
+    /* Description: makes the fonts of the frames: the font of the line of text
+     *              at index 0 and the font of every tile at the index of its
+     *              exponent, smaller for labels of more than 4 digits so that
+     *              they fit on the tile
+     * Input: none
+     * Output: the fonts
+     */
+    public static Font[] makeFonts() {
+        Font[] fonts = new Font[TileStyle.MAX_EXPONENT + 1];
+        fonts[0] = new Font(Font.SANS_SERIF, Font.PLAIN, 16);
+        for (int exponent = 1; exponent <= TileStyle.MAX_EXPONENT; exponent++) {
+            int digits = TileStyle.labelOf(1 << exponent).length();
+            fonts[exponent] = new Font(Font.SANS_SERIF, Font.BOLD,
+                                       TILE_FONT_SIZE * 4 / Math.max(4, digits));
+        }
+        return fonts;
+    }
+
+    /*
+     * Description: Worker class that draws and writes chunks of frames until all
+     *              are taken, into its own image
+     */
+    private class Worker implements Runnable {
+        //the first error writing a frame, null if there was none
+        private IOException failure;
+
+        /* Description: draws and writes chunks of frames until all frames are
+         *              taken or a frame cannot be written
+         * Input: none
+         * Output: none
+         */
+        public void run() {
+            BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = image.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                                      RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            Font[] fonts = makeFonts();
+            try {
+                int first;
+                while ((first = nextFrame.getAndAdd(CHUNK)) < states.length) {
+                    int last = Math.min(first + CHUNK, states.length);
+                    for (int frame = first; frame < last; frame++) {
+                        draw(graphics, fonts, frame);
+                        try (OutputStream out = new BufferedOutputStream(
+                                 Files.newOutputStream(frameFile(frame)))) {
+                            if (!ImageIO.write(image, "png", out)) {
+                                throw new IOException("no PNG writer");
+                            }
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                failure = e;
+                nextFrame.set(states.length);
+            } finally {
+                graphics.dispose();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.out.println("Usage: java FrameExporter recordFile outputDirectory [game] [threads]");
+            return;
+        }
+        System.setProperty("java.awt.headless", "true");
+        ImageIO.setUseCache(false);
+        Path output = Paths.get(args[1]);
+        int only = args.length > 2 ? Integer.parseInt(args[2]) : -1;
+        int threads = args.length > 3 ? Integer.parseInt(args[3])
+            : Runtime.getRuntime().availableProcessors();
+        long frames = 0;
+        long start = System.nanoTime();
+        try (GameRecordReader reader = new GameRecordReader(Paths.get(args[0]))) {
+            for (int game = 0; reader.next(); game++) {
+                if (only >= 0 && game != only) {
+                    continue;
+                }
+                Path directory = only >= 0 ? output : output.resolve(String.format("game-%05d", game));
+                FrameExporter exporter = new FrameExporter(reader, directory);
+                exporter.export(threads);
+                frames += exporter.getNumberOfFrames();
+                if (game == only) {
+                    break;
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Wrote %d frames to %s in %.1f s (%.0f frames/s) on %d threads%n",
+                          frames, output, seconds, frames / seconds, threads);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *
+ * Description: GameRecord class that describes the binary format of the game
+ *              records written by the GameRecordWriter and read by the
+ *              GameRecordReader. A file starts with the MAGIC number and the
+ *              VERSION, each a 4-byte int, followed by one record per game:
+ *
+ *                  seed             8 bytes, the seed of the new tiles
+ *                  initial state    8 bytes, the packed 4x4 grid before move 1
+ *                  number of moves  4 bytes
+ *                  moves            1 byte per move
+ *
+ *              A move byte holds the key in bits 0-1 (its index in "wasd"),
+ *              the cell 4 * i + j of the new tile in bits 2-5 and, in bit 6,
+ *              a 1 if the new tile is a 4 and a 0 if it is a 2. Numbers are
+ *              big-endian. Replaying the moves from the initial state gives
+ *              back every position of the game without the random source.
+ *
+ */
+
+public final class GameRecord {
+    // first 4 bytes of every record file, "2048" in ASCII
+    public static final int MAGIC = 0x32303438;
+    // version of the format
+    public static final int VERSION = 1;
+    // number of bytes before the first record of a file
+    public static final int FILE_HEADER_BYTES = 8;
+    // number of bytes before the first move of a record
+    public static final int RECORD_HEADER_BYTES = 20;
+    // the keys in the order of their index in a move byte
+    public static final String KEYS = "wasd";
+
+    /* Description: private constructor since the class only holds the format
+     * Input: none
+     * Output: none
+     */
+    private GameRecord() {
+    }
+
+    /* Description: packs one move into a byte
+     * Input: the key of the move, the cell 4 * i + j of the new tile and its
+     *        exponent, 1 for a 2 or 2 for a 4
+     * Output: the move byte
+     */
+    public static byte encode(char key, int cell, int exponent) {
+        int index = KEYS.indexOf(key);
+        if (index < 0) {
+            throw new IllegalArgumentException("not a direction: " + key);
+        }
+        return (byte) (index | cell << 2 | (exponent - 1) << 6);
+    }
+
+    /* Description: returns the key of a move byte
+     * Input: the move byte
+     * Output: the character key of the move
+     */
+    public static char keyOf(byte move) {
+        return KEYS.charAt(move & 3);
+    }
+
+    /* Description: returns the cell of the new tile of a move byte
+     * Input: the move byte
+     * Output: the index 4 * i + j of the cell
+     */
+    public static int cellOf(byte move) {
+        return (move >>> 2) & BitBoard.CELL_MASK;
+    }
+
+    /* Description: returns the exponent of the new tile of a move byte
+     * Input: the move byte
+     * Output: 1 for a 2 or 2 for a 4
+     */
+    public static int exponentOf(byte move) {
+        return 1 + ((move >>> 6) & 1);
+    }
+
+    /* Description: plays one recorded move on a packed grid, without a random
+     *              source since the new tile is part of the move
+     * Input: the packed grid and the move byte
+     * Output: the packed grid after the move and its new tile
+     */
+    public static long apply(long board, byte move) {
+        long moved = BitBoard.move(board, keyOf(move));
+        return moved | (long) exponentOf(move) << (BitBoard.CELL_BITS * cellOf(move));
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ *
+ * Description: GameRecordReader class that reads the game records written by a
+ *              GameRecordWriter one after the other. The file is memory-mapped
+ *              in regions of REGION_BYTES and the moves are read straight from
+ *              the mapping, so streaming through a file copies nothing onto the
+ *              heap. Any position of the current game is rebuilt by replaying
+ *              its moves on a packed grid.
+ *              Usage: java GameRecordReader recordFile
+ *
+ */
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class GameRecordReader implements AutoCloseable {
+    // number of bytes of the file that are mapped at a time
+    private static final long REGION_BYTES = 1L << 26;
+
+    //the file the records are read from
+    private FileChannel channel;
+    //length of the file in bytes
+    private long size;
+    //the mapped part of the file that holds the current record
+    private MappedByteBuffer region;
+    //offset in the file of the first byte of region
+    private long regionStart;
+    //offset in the file of the next record
+    private long position;
+    //offset in region of the first move of the current record
+    private int movesOffset;
+    //seed of the current game
+    private long seed;
+    //packed grid of the current game before its first move
+    private long initialState;
+    //number of moves of the current game
+    private int numberOfMoves;
+
+    /* Description: constructor that opens a record file before its first record
+     * Input: the path of the file
+     * Output: none
+     */
+    public GameRecordReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        size = channel.size();
+        if (size < GameRecord.FILE_HEADER_BYTES) {
+            channel.close();
+            throw new IOException(path + " is not a game record file");
+        }
+        map(0, GameRecord.FILE_HEADER_BYTES);
+        if (region.getInt(0) != GameRecord.MAGIC || region.getInt(4) != GameRecord.VERSION) {
+            channel.close();
+            throw new IOException(path + " is not a game record file");
+        }
+        position = GameRecord.FILE_HEADER_BYTES;
+    }
+
+    /* Description: moves on to the next record. A record whose initial state is
+     *              empty marks space that a writer mapped but never filled, for
+     *              example because it was not closed, and ends the file.
+     * Input: none
+     * Output: true if there is a next record and false at the end of the file
+     */
+    public boolean next() throws IOException {
+        if (position + GameRecord.RECORD_HEADER_BYTES > size) {
+            return false;
+        }
+        map(position, GameRecord.RECORD_HEADER_BYTES);
+        int offset = (int) (position - regionStart);
+        long state = region.getLong(offset + 8);
+        int moves = region.getInt(offset + 16);
+        if (state == 0) {
+            return false;
+        }
+        long length = (long) GameRecord.RECORD_HEADER_BYTES + moves;
+        if (moves < 0 || position + length > size) {
+            throw new IOException("truncated record at offset " + position);
+        }
+        map(position, length);
+        offset = (int) (position - regionStart);
+        seed = region.getLong(offset);
+        initialState = state;
+        numberOfMoves = moves;
+        movesOffset = offset + GameRecord.RECORD_HEADER_BYTES;
+        position += length;
+        return true;
+    }
+
+    /* Description: getter to get the seed of the current game
+     * Input: none
+     * Output: the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /* Description: getter to get the packed grid of the current game before its
+     *              first move
+     * Input: none
+     * Output: the packed grid of tile exponents
+     */
+    public long getInitialState() {
+        return initialState;
+    }
+
+    /* Description: getter to get the number of moves of the current game
+     * Input: none
+     * Output: the number of moves
+     */
+    public int getNumberOfMoves() {
+        return numberOfMoves;
+    }
+
+    /* Description: returns one move of the current game, read from the mapping
+     * Input: the index of the move, from 0
+     * Output: the move byte, see GameRecord
+     */
+    public byte getMove(int move) {
+        if (move < 0 || move >= numberOfMoves) {
+            throw new IndexOutOfBoundsException("move " + move + " of " + numberOfMoves);
+        }
+        return region.get(movesOffset + move);
+    }
+
+    /* Description: rebuilds a position of the current game by replaying its moves
+     * Input: the number of moves to replay
+     * Output: the packed grid after that many moves
+     */
+    public long getState(int moves) {
+        if (moves < 0 || moves > numberOfMoves) {
+            throw new IndexOutOfBoundsException("move " + moves + " of " + numberOfMoves);
+        }
+        long board = initialState;
+        for (int k = 0; k < moves; k++) {
+            board = GameRecord.apply(board, region.get(movesOffset + k));
+        }
+        return board;
+    }
+
+    /* Description: rebuilds the last position of the current game
+     * Input: none
+     * Output: the packed grid after every move
+     */
+    public long getFinalState() {
+        return getState(numberOfMoves);
+    }
+
+    /* Description: makes sure that the bytes from start to start + length are
+     *              in the mapped region, mapping the file from start when not
+     * Input: the offset in the file and the number of bytes
+     * Output: none
+     */
+    private void map(long start, long length) throws IOException {
+        if (region != null && start >= regionStart
+            && start + length <= regionStart + region.capacity()) {
+            return;
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("record at offset " + start + " is too large");
+        }
+        regionStart = start;
+        region = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                             Math.min(Math.max(REGION_BYTES, length), size - start));
+    }
+
+    /* Description: closes the file
+     * Input: none
+     * Output: none
+     */
+    public void close() throws IOException {
+        region = null;
+        channel.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java GameRecordReader recordFile");
+            return;
+        }
+        long games = 0;
+        long moves = 0;
+        long won = 0;
+        long start = System.nanoTime();
+        try (GameRecordReader reader = new GameRecordReader(Paths.get(args[0]))) {
+            while (reader.next()) {
+                games++;
+                moves += reader.getNumberOfMoves();
+                if (BitBoard.maxExponent(reader.getFinalState()) >= BitBoard.WINNING_EXPONENT) {
+                    won++;
+                }
+            }
+        }
+        double micros = (System.nanoTime() - start) / 1e3;
+        System.out.println("Games: " + games + ", won: " + won + ", moves: " + moves);
+        System.out.println("Replayed in " + Math.round(micros / 1000) + " ms ("
+                           + (games == 0 ? 0 : Math.round(micros / games * 100) / 100.0)
+                           + " us/game)");
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ *
+ * Description: GameRecordWriter class that appends game records, in the format
+ *              of the GameRecord class, to a file. The file is written through
+ *              memory-mapped regions of REGION_BYTES, so the records go straight
+ *              to the page cache without passing through heap buffers; the only
+ *              heap memory is one reused array with the moves of the current
+ *              game. As a BoardObserver it records every move of a 4x4 Board
+ *              it is added to; games played on a BitBoard are recorded with
+ *              recordMove. A writer is used by one thread at a time.
+ *              A writer that is not closed, for example because the program
+ *              crashed, leaves the mapped space after its last record filled
+ *              with zeros, which a reader takes as the end of the file. A new
+ *              writer therefore cuts the file after its last complete record
+ *              before appending.
+ *
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class GameRecordWriter implements BoardObserver, AutoCloseable {
+    // number of bytes of the file that are mapped at a time
+    private static final long REGION_BYTES = 1L << 26;
+    // moves of a game that fit in the array before it grows
+    private static final int INITIAL_MOVES = 1024;
+
+    //the file the records are appended to
+    private FileChannel channel;
+    //the mapped part of the file that is being written
+    private MappedByteBuffer region;
+    //offset in the file of the first byte of region
+    private long regionStart;
+    //offset in the file where the next record goes
+    private long position;
+    //the moves of the current game
+    private byte[] moves;
+    //number of moves of the current game
+    private int numberOfMoves;
+    //seed of the current game
+    private long seed;
+    //packed grid of the current game before its first move
+    private long initialState;
+    //true between beginGame and endGame
+    private boolean inGame;
+    //key of the last move, waiting for its new tile
+    private char pendingKey;
+    //the observed board of the current game, null for a game of recordMove
+    private Board board;
+    //number of moves the observed board had made when the game began
+    private int firstMove;
+    //number of records written by this writer
+    private int games;
+
+    /* Description: constructor that opens a record file, creating it if it does
+     *              not exist and otherwise appending after its last complete
+     *              record
+     * Input: the path of the file
+     * Output: none
+     */
+    public GameRecordWriter(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                   StandardOpenOption.READ, StandardOpenOption.WRITE);
+        position = channel.size();
+        if (position == 0) {
+            ensureSpace(GameRecord.FILE_HEADER_BYTES);
+            region.putInt(0, GameRecord.MAGIC);
+            region.putInt(4, GameRecord.VERSION);
+            position = GameRecord.FILE_HEADER_BYTES;
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(GameRecord.FILE_HEADER_BYTES);
+            channel.read(header, 0);
+            if (header.getInt(0) != GameRecord.MAGIC || header.getInt(4) != GameRecord.VERSION) {
+                channel.close();
+                throw new IOException(path + " is not a game record file");
+            }
+            position = endOfRecords();
+            if (position < channel.size()) {
+                channel.truncate(position);
+            }
+        }
+        moves = new byte[INITIAL_MOVES];
+    }
+
+    /* Description: walks the record headers of the file up to the first one
+     *              that is empty, cut off or runs past the end of the file, in
+     *              the way a GameRecordReader stops
+     * Input: none
+     * Output: the offset in the file after the last complete record
+     */
+    private long endOfRecords() throws IOException {
+        long size = channel.size();
+        long end = GameRecord.FILE_HEADER_BYTES;
+        ByteBuffer header = ByteBuffer.allocate(GameRecord.RECORD_HEADER_BYTES);
+        while (end + GameRecord.RECORD_HEADER_BYTES <= size) {
+            header.clear();
+            while (header.hasRemaining()) {
+                if (channel.read(header, end + header.position()) < 0) {
+                    return end;
+                }
+            }
+            long state = header.getLong(8);
+            int length = header.getInt(16);
+            long next = end + GameRecord.RECORD_HEADER_BYTES + length;
+            if (state == 0 || length < 0 || next > size) {
+                return end;
+            }
+            end = next;
+        }
+        return end;
+    }
+
+    /* Description: starts recording a game from the current position of a board
+     * Input: the 4x4 board, before its first recorded move
+     * Output: none
+     */
+    public void beginGame(Board board) {
+        beginGame(board.getSeed(), board.getState());
+        this.board = board;
+        firstMove = board.getNumberOfMoves();
+    }
+
+    /* Description: starts recording a game, dropping any game that was begun but
+     *              not ended
+     * Input: the seed of the new tiles and the packed grid before the first move
+     * Output: none
+     */
+    public void beginGame(long seed, long initialState) {
+        this.seed = seed;
+        this.initialState = initialState;
+        numberOfMoves = 0;
+        inGame = true;
+        board = null;
+    }
+
+    /* Description: adds one move to the current game
+     * Input: the key of the move, the cell 4 * i + j of the new tile and its
+     *        exponent, 1 for a 2 or 2 for a 4
+     * Output: none
+     */
+    public void recordMove(char key, int cell, int exponent) {
+        if (!inGame) {
+            throw new IllegalStateException("beginGame must be called first");
+        }
+        if (numberOfMoves == moves.length) {
+            byte[] larger = new byte[moves.length * 2];
+            System.arraycopy(moves, 0, larger, 0, numberOfMoves);
+            moves = larger;
+        }
+        moves[numberOfMoves++] = GameRecord.encode(key, cell, exponent);
+    }
+
+    /* Description: remembers the key of a move of the observed board until its
+     *              new tile is known
+     * Input: the character key of the move
+     * Output: none
+     */
+    public void boardShifted(char key) {
+        pendingKey = key;
+    }
+
+    /* Description: records the move of the observed board with its new tile
+     * Input: int i, int j identifies the cell of the new tile, and its number
+     * Output: none
+     */
+    public void tileSpawned(int i, int j, int number) {
+        recordMove(pendingKey, BitBoard.GRID * i + j, Integer.numberOfTrailingZeros(number));
+    }
+
+    /* Description: follows an undo or redo of the observed board. The moves of
+     *              an undone position are kept in the array, so going back and
+     *              forward only changes how many of them belong to the game.
+     *              Going back past the start of the game starts it again.
+     * Input: none
+     * Output: none
+     */
+    public void boardReset() {
+        if (board == null) {
+            return;
+        }
+        int played = board.getNumberOfMoves() - firstMove;
+        if (played < 0) {
+            beginGame(board);
+        } else {
+            numberOfMoves = played;
+        }
+    }
+
+    /* Description: appends the current game to the file
+     * Input: none
+     * Output: none
+     */
+    public void endGame() throws IOException {
+        if (!inGame) {
+            return;
+        }
+        int length = GameRecord.RECORD_HEADER_BYTES + numberOfMoves;
+        ensureSpace(length);
+        int offset = (int) (position - regionStart);
+        region.putLong(offset, seed);
+        region.putLong(offset + 8, initialState);
+        region.putInt(offset + 16, numberOfMoves);
+        region.put(offset + GameRecord.RECORD_HEADER_BYTES, moves, 0, numberOfMoves);
+        position += length;
+        inGame = false;
+        games++;
+    }
+
+    /* Description: getter to get the number of games written by this writer
+     * Input: none
+     * Output: the number of records
+     */
+    public int getNumberOfGames() {
+        return games;
+    }
+
+    /* Description: makes sure that the mapped region has room for the given
+     *              number of bytes at position, mapping the next part of the
+     *              file when it does not
+     * Input: the number of bytes
+     * Output: none
+     */
+    private void ensureSpace(int bytes) throws IOException {
+        if (region != null && position + bytes <= regionStart + region.capacity()) {
+            return;
+        }
+        if (region != null) {
+            region.force();
+        }
+        regionStart = position;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart,
+                             Math.max(REGION_BYTES, bytes));
+    }
+
+    /* Description: writes the current game, if any, and closes the file, cutting
+     *              off the mapped space that was not used
+     * Input: none
+     * Output: none
+     */
+    public void close() throws IOException {
+        try {
+            endGame();
+            if (region != null) {
+                region.force();
+                region = null;
+            }
+            channel.truncate(position);
+        } finally {
+            channel.close();
+        }
+    }
+}
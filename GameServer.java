@@ -0,0 +1,368 @@
+/*
+ *
+ * Description: Where many games of 2048 are hosted at the same time for bots
+ *              and people connecting over a local socket. Every connection is
+ *              a session with its own headless 4x4 game and is served by its
+ *              own virtual thread, which costs little more than the BitBoard
+ *              and a few small buffers while the session waits for input, so
+ *              tens of thousands of idle sessions fit in a modest heap. The
+ *              protocol is one command per line and one reply per command:
+ *                w, a, s, d    make a move, answered with the new STATE or
+ *                              with ILLEGAL when the key does not change the
+ *                              board
+ *                state         STATE <grid> <score> <moves> <legal>, where
+ *                              grid is the packed grid as 16 hex digits and
+ *                              legal the mask of BitBoard.legalMoves
+ *                new [seed]    start a new game, answered with its STATE
+ *                stats         STATS with the number of sessions, the number
+ *                              of moves and the p50 and p99 move latency in
+ *                              microseconds
+ *                quit          BYE, then the connection is closed
+ *              A line longer than LINE_BYTES is answered once with an ERROR
+ *              and the rest of it is skipped.
+ *              The move latency is measured from a move command being read to
+ *              its reply being written, and is also printed every
+ *              REPORT_INTERVAL while moves are made.
+ *              Usage: java GameServer [port] [seed]
+ *
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class GameServer implements AutoCloseable {
+    // port the server listens on when none is given
+    public static final int DEFAULT_PORT = 2048;
+    // time between two reports of the move latency, in milliseconds
+    private static final long REPORT_INTERVAL = 10000;
+    // longest command line a session accepts, in bytes
+    private static final int LINE_BYTES = 64;
+
+    //the socket that accepts new connections
+    private ServerSocket server;
+    //the source every session splits its own source from
+    private RandomSource random;
+    //number of open sessions
+    private AtomicInteger sessions;
+    //number of sessions opened since the server started
+    private AtomicInteger opened;
+    //number of moves made by all sessions
+    private LongAdder moves;
+    //time from reading a move to writing its reply
+    private LatencyHistogram latency;
+
+    /* Description: constructor that starts listening on the loopback address
+     * Input: the port, 0 for any free port, and the source of the new tiles
+     * Output: none
+     */
+    public GameServer(int port, RandomSource random) throws IOException {
+        server = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        this.random = random;
+        sessions = new AtomicInteger();
+        opened = new AtomicInteger();
+        moves = new LongAdder();
+        latency = new LatencyHistogram();
+    }
+
+    /* Description: getter to get the port the server listens on
+     * Input: none
+     * Output: the port
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /* Description: getter to get the number of open sessions
+     * Input: none
+     * Output: the number of sessions
+     */
+    public int getNumberOfSessions() {
+        return sessions.get();
+    }
+
+    /* Description: getter to get the number of moves made by all sessions
+     * Input: none
+     * Output: the number of moves
+     */
+    public long getNumberOfMoves() {
+        return moves.sum();
+    }
+
+    /* Description: getter to get the latency of the moves so far
+     * Input: none
+     * Output: the histogram of the move latencies
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /* Description: accepts connections until the server is closed, starting a
+     *              virtual thread for each
+     * Input: none
+     * Output: none
+     */
+    public void serve() throws IOException {
+        while (true) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (SocketException e) {
+                if (server.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            Session session = new Session(socket, random.split());
+            sessions.incrementAndGet();
+            Thread.ofVirtual().name("session-" + opened.incrementAndGet()).start(session);
+        }
+    }
+
+    /* Description: stops accepting connections. Open sessions go on until their
+     *              clients disconnect.
+     * Input: none
+     * Output: none
+     */
+    public void close() throws IOException {
+        server.close();
+    }
+
+    /* Description: writes the numbers of the stats command
+     * Input: the reply to append to
+     * Output: none
+     */
+    private void appendStats(StringBuilder reply) {
+        reply.append("STATS sessions ").append(sessions.get())
+            .append(" moves ").append(moves.sum())
+            .append(" p50 ").append(latency.getPercentile(0.5) / 1000)
+            .append(" p99 ").append(latency.getPercentile(0.99) / 1000);
+    }
+
+    /*
+     * Description: Session class with the game of one connection, read and
+     *              written only by the virtual thread of the connection
+     */
+    private class Session implements Runnable {
+        //the connection
+        private Socket socket;
+        //the source of the new games of the session
+        private RandomSource random;
+        //the game being played
+        private BitBoard board;
+        //bytes read from the connection that are not handled yet
+        private byte[] input;
+        //number of bytes in input
+        private int length;
+        //true when the last line read was longer than LINE_BYTES
+        private boolean tooLong;
+        //the reply being written, reused between commands
+        private StringBuilder reply;
+
+        /* Description: constructor for a session with a new game
+         * Input: the connection and the source of its games
+         * Output: none
+         */
+        Session(Socket socket, RandomSource random) {
+            this.socket = socket;
+            this.random = random;
+            board = new BitBoard(random.split());
+            input = new byte[LINE_BYTES];
+            reply = new StringBuilder(LINE_BYTES);
+        }
+
+        /* Description: answers commands until the client disconnects or quits
+         * Input: none
+         * Output: none
+         */
+        public void run() {
+            try (Socket connection = socket) {
+                InputStream in = connection.getInputStream();
+                OutputStream out = connection.getOutputStream();
+                String line;
+                while ((line = readLine(in)) != null) {
+                    long start = System.nanoTime();
+                    String command = line.trim();
+                    boolean move = isMove(command);
+                    boolean open = handle(command);
+                    out.write(reply.toString().getBytes(StandardCharsets.US_ASCII));
+                    if (move) {
+                        latency.record(System.nanoTime() - start);
+                    }
+                    if (!open) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                // the client went away; its game is dropped
+            } finally {
+                sessions.decrementAndGet();
+            }
+        }
+
+        /* Description: returns true if a command is a move, which is then counted
+         *              in the move latency
+         * Input: the trimmed command line
+         * Output: true for w, a, s or d and false otherwise
+         */
+        private boolean isMove(String command) {
+            return command.length() == 1 && BitBoard.keyBit(command.charAt(0)) != 0;
+        }
+
+        /* Description: runs one command and puts its answer in reply
+         * Input: the trimmed command line
+         * Output: false if the session should close and true otherwise
+         */
+        private boolean handle(String line) {
+            reply.setLength(0);
+            if (tooLong) {
+                tooLong = false;
+                reply.append("ERROR line too long\n");
+                return true;
+            }
+            String[] words = line.split(" +");
+            String command = words[0];
+            if (isMove(command)) {
+                char key = command.charAt(0);
+                if (board.isKeyPermitted(key)) {
+                    board.shift(key);
+                    moves.increment();
+                    appendState();
+                } else {
+                    reply.append("ILLEGAL");
+                }
+            } else if (command.equals("state")) {
+                appendState();
+            } else if (command.equals("new")) {
+                if (words.length > 1) {
+                    try {
+                        board = new BitBoard(new SplittableRandomSource(Long.parseLong(words[1])));
+                    } catch (NumberFormatException e) {
+                        reply.append("ERROR bad seed ").append(words[1]).append('\n');
+                        return true;
+                    }
+                } else {
+                    board = new BitBoard(random.split());
+                }
+                appendState();
+            } else if (command.equals("stats")) {
+                appendStats(reply);
+            } else if (command.equals("quit")) {
+                reply.append("BYE\n");
+                return false;
+            } else {
+                reply.append("ERROR unknown command ").append(command);
+            }
+            reply.append('\n');
+            return true;
+        }
+
+        /* Description: writes the STATE line of the game
+         * Input: none
+         * Output: none
+         */
+        private void appendState() {
+            long state = board.getState();
+            reply.append("STATE ");
+            for (int shift = Long.SIZE - BitBoard.CELL_BITS; shift >= 0; shift -= BitBoard.CELL_BITS) {
+                reply.append(Character.forDigit((int) (state >>> shift) & BitBoard.CELL_MASK, 16));
+            }
+            reply.append(' ').append(board.getScore())
+                .append(' ').append(board.getNumberOfMoves())
+                .append(' ').append(board.legalMoves());
+        }
+
+        /* Description: reads the next line from the connection, keeping any
+         *              bytes after it for the next call. A line longer than
+         *              LINE_BYTES is skipped up to its line break and returned
+         *              as an empty line with tooLong set, so that it gets one
+         *              reply.
+         * Input: the stream of the connection
+         * Output: the line without its line break, or null at the end of the
+         *         stream
+         */
+        private String readLine(InputStream in) throws IOException {
+            while (true) {
+                for (int k = 0; k < length; k++) {
+                    if (input[k] == '\n') {
+                        int end = k > 0 && input[k - 1] == '\r' ? k - 1 : k;
+                        String line = new String(input, 0, end, StandardCharsets.US_ASCII);
+                        System.arraycopy(input, k + 1, input, 0, length - k - 1);
+                        length -= k + 1;
+                        return line;
+                    }
+                }
+                if (length == input.length) {
+                    if (!skipLine(in)) {
+                        return null;
+                    }
+                    tooLong = true;
+                    return "";
+                }
+                int read = in.read(input, length, input.length - length);
+                if (read < 0) {
+                    return null;
+                }
+                length += read;
+            }
+        }
+
+        /* Description: drops the bytes read so far and the rest of the line,
+         *              keeping any bytes after its line break for the next call
+         * Input: the stream of the connection
+         * Output: false if the stream ended before the line break and true
+         *         otherwise
+         */
+        private boolean skipLine(InputStream in) throws IOException {
+            while (true) {
+                int read = in.read(input, 0, input.length);
+                if (read < 0) {
+                    length = 0;
+                    return false;
+                }
+                for (int k = 0; k < read; k++) {
+                    if (input[k] == '\n') {
+                        System.arraycopy(input, k + 1, input, 0, read - k - 1);
+                        length = read - k - 1;
+                        return true;
+                    }
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        RandomSource random = args.length > 1
+            ? new SplittableRandomSource(Long.parseLong(args[1]))
+            : new SplittableRandomSource();
+        GameServer gameServer = new GameServer(port, random);
+        System.out.println("Listening on " + InetAddress.getLoopbackAddress().getHostAddress()
+                           + ":" + gameServer.getPort());
+        Thread.ofPlatform().daemon().name("stats").start(() -> {
+            long reported = 0;
+            while (true) {
+                try {
+                    Thread.sleep(REPORT_INTERVAL);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long done = gameServer.getNumberOfMoves();
+                if (done > reported) {
+                    StringBuilder line = new StringBuilder();
+                    gameServer.appendStats(line);
+                    System.out.println(line);
+                    reported = done;
+                }
+            }
+        });
+        gameServer.serve();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ *
+ * Description: GreedyPolicy class that implements the Policy by picking the key
+ *              whose merges score the most right away. When no key merges
+ *              anything it picks a random key that changes the board.
+ *
+ */
+
+public class GreedyPolicy implements Policy {
+    // the keys that the policy can pick
+    private static final String KEYS = BitBoard.KEYS;
+    //picks a key when no key scores
+    private RandomPolicy fallback;
+
+    /* Description: Default constructor for a greedy policy
+     * Input: none
+     * Output: none
+     */
+    public GreedyPolicy() {
+        fallback = new RandomPolicy();
+    }
+
+    /* Description: picks the key with the best immediate score
+     * Input: the board and the source of the random choice between keys that
+     *        do not score
+     * Output: the character key of the move, or 0 if no key can move the board
+     */
+    public char chooseMove(BitBoard board, RandomSource random) {
+        long state = board.getState();
+        int bestScore = 0;
+        char bestKey = 0;
+        for (int legal = board.legalMoves(); legal != 0; legal &= legal - 1) {
+            char key = KEYS.charAt(Integer.numberOfTrailingZeros(legal));
+            int score = BitBoard.scoreOf(state, key);
+            if (score > bestScore) {
+                bestScore = score;
+                bestKey = key;
+            }
+        }
+        return bestKey != 0 ? bestKey : fallback.chooseMove(board, random);
+    }
+
+    /* Description: nothing is kept between games
+     * Input: none
+     * Output: none
+     */
+    public void newGame() {
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ *
+ * Description: GridBoard class that implements the BoardInterface for a square
+ *              grid of any size. The grid is one byte array with a byte per
+ *              cell holding the exponent of its tile (1 for 2, 2 for 4, ...) or
+ *              0 when the cell is empty; cell (i, j) is at index size * i + j.
+ *              A move walks every line of the grid once and new tiles are
+ *              found with one pass over the cells, so the cost of a move grows
+ *              with the number of cells and nothing is allocated. It follows
+ *              the same rules as the BitBoard, which is faster for 4x4 grids.
+ *
+ */
+
+public class GridBoard implements BoardInterface {
+    //the tile exponent of every cell, row by row
+    private byte[] cells;
+    //number of cells per column / row
+    private int size;
+    //variable that keeps track of the number of moves made by the user
+    private int numberOfMoves;
+    //sum of the values of every tile created by a merge
+    private int score;
+    //index (size * i + j) of the cell filled by the last new tile, -1 if none
+    private int lastSpawn;
+    //number of occupied cells
+    private int numberOfTiles;
+    //where the new tiles come from
+    private RandomSource random;
+    //exponent of the largest tile on the board
+    private int maxExponent;
+    //true while at least one key can change the board
+    private boolean movesLeft;
+    // smallest number of cells per column / row
+    public static final int MIN_SIZE = 2;
+    // largest number of cells per column / row
+    public static final int MAX_SIZE = 16;
+    // exponent of the largest tile, which never merges so that numbers fit an int
+    public static final int MAX_EXPONENT = 30;
+
+    /* Description: constructor that starts an empty grid with two random tiles
+     * Input: the number of cells per column / row
+     * Output: none (builds the board)
+     */
+    public GridBoard(int size) {
+        this(size, new SplittableRandomSource());
+    }
+
+    /* Description: constructor that starts an empty grid with two tiles drawn
+     *              from the given source, which then decides every new tile of
+     *              the game
+     * Input: the number of cells per column / row and the source of the random
+     *        numbers
+     * Output: none (builds the board)
+     */
+    public GridBoard(int size, RandomSource random) {
+        if (size < MIN_SIZE || size > MAX_SIZE) {
+            throw new IllegalArgumentException("size must be between " + MIN_SIZE
+                                               + " and " + MAX_SIZE);
+        }
+        this.size = size;
+        this.random = random;
+        cells = new byte[size * size];
+        lastSpawn = -1;
+        newTile();
+        newTile();
+    }
+
+    /* Description: getter to get the number of cells per column / row
+     * Input: none
+     * Output: the size of the grid
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /* Description: getter to get a copy of the grid
+     * Input: none
+     * Output: the tile exponent of every cell, row by row
+     */
+    public byte[] getState() {
+        return cells.clone();
+    }
+
+    /* Description: replaces the grid, for example to go back to an earlier
+     *              position. The number of moves and the score are kept.
+     * Input: the tile exponent of every cell, row by row
+     * Output: none
+     */
+    public void setState(byte[] state) {
+        if (state.length != cells.length) {
+            throw new IllegalArgumentException("state must have " + cells.length + " cells");
+        }
+        System.arraycopy(state, 0, cells, 0, cells.length);
+        numberOfTiles = 0;
+        maxExponent = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != 0) {
+                numberOfTiles++;
+                maxExponent = Math.max(maxExponent, cells[cell]);
+            }
+        }
+        updateMovesLeft();
+        lastSpawn = -1;
+    }
+
+    /* Description: getter to get the number of moves made so far
+     * Input: none
+     * Output: the number of moves
+     */
+    public int getNumberOfMoves() {
+        return numberOfMoves;
+    }
+
+    /* Description: getter to get the sum of every tile created by a merge
+     * Input: none
+     * Output: the score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /* Description: getter to get the cell filled by the last new tile
+     * Input: none
+     * Output: the index size * i + j of the cell, or -1 if no tile was added yet
+     */
+    public int getLastSpawn() {
+        return lastSpawn;
+    }
+
+    /* Description: returns the number on the tile at row i and column j
+     * Input: int i, int j identifies the cell
+     * Output: the number of the tile, 0 if the cell is empty
+     */
+    public int getTile(int i, int j) {
+        int exponent = cells[size * i + j];
+        return exponent == 0 ? 0 : 1 << exponent;
+    }
+
+    /* Description: getter to get the number of tiles on the board
+     * Input: none
+     * Output: the number of occupied cells
+     */
+    public int getNumberOfTiles() {
+        return numberOfTiles;
+    }
+
+    /* Description: getter to get the largest tile on the board
+     * Input: none
+     * Output: the number of the largest tile, 0 if the board is empty
+     */
+    public int getMaxTile() {
+        return maxExponent == 0 ? 0 : 1 << maxExponent;
+    }
+
+    /* Description: returns true while at least one key can change the board
+     * Input: none
+     * Output: true if a tile can still move or merge and false otherwise
+     */
+    public boolean hasMovesLeft() {
+        return movesLeft;
+    }
+
+    /* Description: works out whether a key can still change the board. With at
+     *              least one tile and one empty cell some tile can always move;
+     *              a full board can only move if two neighbours can merge.
+     * Input: none
+     * Output: none
+     */
+    private void updateMovesLeft() {
+        if (numberOfTiles < cells.length) {
+            movesLeft = numberOfTiles > 0;
+            return;
+        }
+        movesLeft = legalMoves() != 0;
+    }
+
+    /* Description: After every move, adds a new tile that is a 2 or 4 at a random
+     *              unoccupied position on the board. One random draw picks both
+     *              the empty cell and the number, the same way as the BitBoard.
+     * Input: none
+     * Output: the index size * i + j of the filled cell, or -1 if the board is full
+     */
+    public int newTile() {
+        int count = cells.length - numberOfTiles;
+        if (count == 0) {
+            return -1;
+        }
+        int draw = random.nextInt(count * 2);
+        int skip = draw >> 1;
+        int cell = 0;
+        while (cells[cell] != 0 || skip-- > 0) {
+            cell++;
+        }
+        int exponent = (draw & 1) == 0 ? 2 : 1;
+        cells[cell] = (byte) exponent;
+        numberOfTiles++;
+        maxExponent = Math.max(maxExponent, exponent);
+        updateMovesLeft();
+        lastSpawn = cell;
+        return cell;
+    }
+
+    /* Description: returns true if the key pressed is able to be processed. For
+     *              example a possible move can be made.
+     * Input: the character of the key that has been pressed
+     * Output: returns true if the key changes the board and false otherwise
+     */
+    public boolean isKeyPermitted(char key) {
+        return (legalMoves() & BitBoard.keyBit(key)) != 0;
+    }
+
+    /* Description: returns every key that changes the board, found in one pass
+     *              over the pairs of neighbouring cells. A tile can move towards
+     *              an empty neighbour, and two equal tiles below MAX_EXPONENT
+     *              can merge either way.
+     * Input: none
+     * Output: a mask with bit k set when "wasd".charAt(k) changes the board
+     */
+    public int legalMoves() {
+        int legal = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int exponent = cells[size * i + j];
+                if (j + 1 < size) {
+                    legal |= pairMoves(exponent, cells[size * i + j + 1], 2, 8);
+                }
+                if (i + 1 < size) {
+                    legal |= pairMoves(exponent, cells[size * (i + 1) + j], 4, 1);
+                }
+            }
+        }
+        return legal;
+    }
+
+    /* Description: when the key is pressed, all the tiles in the board will move in
+     *              this direction and merge, without adding a new tile
+     * Input: the character key which describes the direction of movement
+     * Output: returns true if the board changed and false otherwise
+     */
+    public boolean motionOfKey(char key) {
+        int step = stepOf(key);
+        if (step == 0) {
+            return false;
+        }
+        boolean changed = false;
+        for (int line = 0; line < size; line++) {
+            changed |= slideLine(startOf(key, line), step);
+        }
+        if (changed) {
+            movesLeft = true;
+        }
+        return changed;
+    }
+
+    /* Description: moves and merges the tiles in the direction described by the
+     *              key, then creates a random new tile of either 2 or 4
+     * Input: the character key which describes the direction to move
+     * Output: none
+     */
+    public void shift(char key) {
+        if (motionOfKey(key)) {
+            newTile();
+            numberOfMoves++;
+        }
+    }
+
+    /* Description: returns true if no key can change the board anymore
+     * Input: none
+     * Output: return true when the board is full and all adjacent tiles are
+     *         different from one another and false otherwise
+     */
+    public boolean isGameOver() {
+        return !movesLeft;
+    }
+
+    /* Description: returns true when the 2048 tile is on the board
+     * Input: none
+     * Output: returns true if user has made 2048 so that they have won and false
+     *         otherwise
+     */
+    public boolean hasWonGame() {
+        return maxExponent >= BitBoard.WINNING_EXPONENT;
+    }
+
+    /* Description: returns the cell a line starts at, which is the edge that the
+     *              key moves the tiles towards. 'a' moves towards column 0, 'd'
+     *              towards the last column, 's' towards row 0 and 'w' towards
+     *              the last row.
+     * Input: the character key and the index of the line
+     * Output: the index of the first cell of the line
+     */
+    private int startOf(char key, int line) {
+        if (key == 'a') {
+            return size * line;
+        } else if (key == 'd') {
+            return size * line + size - 1;
+        } else if (key == 's') {
+            return line;
+        }
+        return size * (size - 1) + line;
+    }
+
+    /* Description: returns how far apart two neighbouring cells of a line are,
+     *              going away from the edge that the key moves the tiles towards
+     * Input: the character key
+     * Output: the step between two cells, or 0 if the key is not a direction
+     */
+    private int stepOf(char key) {
+        if (key == 'a') {
+            return 1;
+        } else if (key == 'd') {
+            return -1;
+        } else if (key == 's') {
+            return size;
+        } else if (key == 'w') {
+            return -size;
+        }
+        return 0;
+    }
+
+    /* Description: slides and merges one line towards its first cell. Two tiles
+     *              merge once per move, and tiles of MAX_EXPONENT never merge.
+     * Input: the first cell of the line and the step between its cells
+     * Output: returns true if the line changed and false otherwise
+     */
+    private boolean slideLine(int start, int step) {
+        boolean changed = false;
+        int write = start;
+        int last = 0;
+        for (int k = 0, read = start; k < size; k++, read += step) {
+            int exponent = cells[read];
+            if (exponent == 0) {
+                continue;
+            }
+            cells[read] = 0;
+            if (exponent == last && exponent < MAX_EXPONENT) {
+                cells[write - step] = (byte) (exponent + 1);
+                score += 1 << (exponent + 1);
+                maxExponent = Math.max(maxExponent, exponent + 1);
+                numberOfTiles--;
+                changed = true;
+                last = 0;
+            } else {
+                cells[write] = (byte) exponent;
+                changed |= write != read;
+                write += step;
+                last = exponent;
+            }
+        }
+        return changed;
+    }
+
+    /* Description: returns the keys that change a pair of neighbouring cells
+     * Input: the exponents of the cell nearer the start of its line and of the
+     *        next one, the bit of the key that moves tiles towards the first
+     *        cell and the bit of the key that moves them towards the second
+     * Output: the mask of the keys that move or merge the pair
+     */
+    private static int pairMoves(int first, int second, int towardsFirst, int towardsSecond) {
+        if (first == 0) {
+            return second == 0 ? 0 : towardsFirst;
+        } else if (second == 0) {
+            return towardsSecond;
+        } else if (first == second && first < MAX_EXPONENT) {
+            return towardsFirst | towardsSecond;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ *
+ * Description: Where games of 2048 are played without a display. Each game picks
+ *              random keys until it is over, at full CPU speed since no
+ *              BoardRenderer is attached, and the totals are printed at the end.
+ *              Given a record file, the games of a 4x4 board are appended to it.
+ *              Usage: java HeadlessRunner [numberOfGames] [seed] [size] [recordFile]
+ */
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class HeadlessRunner {
+    // number of games played when none is given
+    private static final int DEFAULT_GAMES = 10000;
+    // the keys that a random player can press
+    private static final String KEYS = "wasd";
+
+    /* Description: plays one game with random keys until it is over
+     * Input: the board to play on and the source of the keys
+     * Output: none
+     */
+    public static void playRandomGame(Board board, RandomSource random) {
+        while (!board.isGameOver()) {
+            board.shift(KEYS.charAt(random.nextInt(KEYS.length())));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+        RandomSource random = args.length > 1
+            ? new SplittableRandomSource(Long.parseLong(args[1]))
+            : new SplittableRandomSource();
+        int size = args.length > 2 ? Integer.parseInt(args[2]) : Board.DEFAULT_SIZE;
+        if (args.length > 3 && size != BitBoard.GRID) {
+            System.out.println("Only games of a 4x4 board can be recorded");
+            return;
+        }
+        GameRecordWriter writer = args.length > 3 ? new GameRecordWriter(Paths.get(args[3])) : null;
+        long moves = 0;
+        int won = 0;
+        long start = System.nanoTime();
+        for (int g = 0; g < games; g++) {
+            RandomSource gameRandom = random.split();
+            Board board = new Board(size, gameRandom.split());
+            if (writer != null) {
+                writer.beginGame(board);
+                board.addObserver(writer);
+            }
+            playRandomGame(board, gameRandom);
+            if (writer != null) {
+                writer.endGame();
+            }
+            moves += board.getNumberOfMoves();
+            if (board.hasWonGame()) {
+                won++;
+            }
+        }
+        if (writer != null) {
+            writer.close();
+        }
+        double millis = (System.nanoTime() - start) / 1e6;
+        System.out.println("Seed: " + random.getSeed() + ", size: " + size + "x" + size);
+        System.out.println("Games: " + games + ", won: " + won);
+        System.out.println("Moves: " + moves + " in " + Math.round(millis) + " ms ("
+                           + Math.round(moves / millis) + " moves/ms)");
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ *
+ * Description: HintService class that thinks about the next move while the
+ *              player does. As a BoardObserver it hands every new position of
+ *              a 4x4 Board to a background thread as soon as the move that made
+ *              it is done. That thread searches the position one move deeper at
+ *              a time with its own ExpectimaxSearcher and keeps the result of
+ *              the deepest finished search, so asking for a hint never waits.
+ *              A new position cancels the search of the old one within a few
+ *              thousand positions; the searcher's transposition table is kept,
+ *              so what was searched below the move that was played is reused.
+ *              The observer calls come from the thread that plays on the Board
+ *              and only copy the packed grid, so they never slow it down.
+ *
+ */
+
+public class HintService implements BoardObserver, AutoCloseable {
+    // time one depth of the search may take, in nanoseconds
+    private static final long DEPTH_BUDGET = 10000000000L;
+
+    //the board whose positions are searched
+    private Board board;
+    //searches the positions, used only by the background thread
+    private ExpectimaxSearcher searcher;
+    //the packed grid of the latest position
+    private long position;
+    //number of the latest position, counting from 1
+    private long generation;
+    //System.nanoTime() when the latest position arrived
+    private long postedAt;
+    //best move found for the latest position, null if none yet
+    private SearchResult best;
+    //true once the search of the latest position is as deep as it goes
+    private boolean finished;
+    //true once the service is closed
+    private boolean closed;
+
+    /* Description: constructor that starts thinking about the current position
+     *              of a board. The service still has to be added to the board
+     *              as an observer.
+     * Input: the 4x4 board
+     * Output: none
+     */
+    public HintService(Board board) {
+        this(board, new ExpectimaxSearcher());
+    }
+
+    /* Description: constructor that searches with the given searcher, which no
+     *              other thread may use
+     * Input: the 4x4 board and the searcher
+     * Output: none
+     */
+    public HintService(Board board, ExpectimaxSearcher searcher) {
+        this.board = board;
+        this.searcher = searcher;
+        post(board.getState());
+        Thread thread = new Thread(this::think, "hints");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /* Description: nothing to do until the new tile of the move is known
+     * Input: the character key of the move
+     * Output: none
+     */
+    public void boardShifted(char key) {
+    }
+
+    /* Description: starts thinking about the position after a move
+     * Input: int i, int j identifies the cell of the new tile, and its number
+     * Output: none
+     */
+    public void tileSpawned(int i, int j, int number) {
+        post(board.getState());
+    }
+
+    /* Description: starts thinking about the position after an undo or redo
+     * Input: none
+     * Output: none
+     */
+    public void boardReset() {
+        post(board.getState());
+    }
+
+    /* Description: returns the best move found so far for the current position
+     *              without waiting
+     * Input: none
+     * Output: the move, or null if no search of the position finished yet or
+     *         no key can move the board
+     */
+    public synchronized SearchResult getHint() {
+        return best;
+    }
+
+    /* Description: returns true once the current position has been searched as
+     *              deep as the searcher goes, so the hint will not change
+     * Input: none
+     * Output: true if the search is done and false otherwise
+     */
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+
+    /* Description: returns how long the current position has been searched
+     * Input: none
+     * Output: the time since the position arrived in nanoseconds
+     */
+    public synchronized long getThinkingTime() {
+        return System.nanoTime() - postedAt;
+    }
+
+    /* Description: stops the background thread
+     * Input: none
+     * Output: none
+     */
+    public synchronized void close() {
+        closed = true;
+        searcher.cancel();
+        notifyAll();
+    }
+
+    /* Description: replaces the position to think about and cancels the search
+     *              of the old one
+     * Input: the packed grid
+     * Output: none
+     */
+    private synchronized void post(long state) {
+        position = state;
+        generation++;
+        postedAt = System.nanoTime();
+        best = null;
+        finished = false;
+        searcher.cancel();
+        notifyAll();
+    }
+
+    /* Description: the loop of the background thread. The cancel flag is cleared
+     *              under the same lock that post sets it under, so a position
+     *              that arrives while another is searched always cancels that
+     *              search and never the search of the new position.
+     * Input: none
+     * Output: none
+     */
+    private void think() {
+        long searched = 0;
+        while (true) {
+            long state;
+            long current;
+            synchronized (this) {
+                while (!closed && generation == searched) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+                searcher.clearCancel();
+                state = position;
+                current = generation;
+            }
+            searched = current;
+            deepen(state, current);
+        }
+    }
+
+    /* Description: searches a position one move deeper at a time, publishing
+     *              every finished depth, until the deepest search is done or
+     *              another position arrives
+     * Input: the packed grid and its number
+     * Output: none
+     */
+    private void deepen(long state, long current) {
+        int depths = BitBoard.legalMoves(state) == 0 ? 0 : searcher.getMaxDepth();
+        for (int depth = 1; depth <= depths; depth++) {
+            SearchResult result = searcher.searchDepth(state, depth, DEPTH_BUDGET);
+            if (result == null) {
+                break;
+            }
+            synchronized (this) {
+                if (generation != current) {
+                    return;
+                }
+                best = result;
+            }
+        }
+        synchronized (this) {
+            if (generation == current) {
+                finished = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *
+ * Description: LatencyHistogram class that counts durations in nanoseconds so
+ *              that percentiles such as the median and the 99th percentile can
+ *              be read at any time. Every power of two is split into
+ *              SUB_BUCKETS buckets, so a percentile is within about 3% of the
+ *              true duration while the whole range of a long fits in under two
+ *              thousand counters. Any number of threads may record at the same
+ *              time; recording is one atomic increment and never allocates.
+ *
+ */
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+    // number of bits of a duration kept below its highest bit
+    private static final int SUB_BITS = 5;
+    // number of buckets per power of two
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    // number of buckets needed for every positive long
+    private static final int BUCKETS = (Long.SIZE - SUB_BITS) * SUB_BUCKETS;
+
+    //number of durations that fell in each bucket
+    private AtomicLongArray counts;
+    //number of durations recorded
+    private LongAdder total;
+
+    /* Description: Default constructor for an empty histogram
+     * Input: none
+     * Output: none
+     */
+    public LatencyHistogram() {
+        counts = new AtomicLongArray(BUCKETS);
+        total = new LongAdder();
+    }
+
+    /* Description: counts one duration
+     * Input: the duration in nanoseconds, negative durations count as 0
+     * Output: none
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(Math.max(0, nanos)));
+        total.increment();
+    }
+
+    /* Description: getter to get the number of durations recorded
+     * Input: none
+     * Output: the number of durations
+     */
+    public long getCount() {
+        return total.sum();
+    }
+
+    /* Description: returns the duration that the given fraction of the recorded
+     *              durations do not exceed, for example 0.99 for the 99th
+     *              percentile. Durations recorded while it runs may or may not
+     *              be counted.
+     * Input: the fraction, from 0 to 1
+     * Output: the largest duration of the bucket of that rank in nanoseconds,
+     *         0 if nothing was recorded
+     */
+    public long getPercentile(double fraction) {
+        long count = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            count += counts.get(b);
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts.get(b);
+            if (seen >= rank) {
+                return b + 1 < BUCKETS ? lowestOf(b + 1) - 1 : Long.MAX_VALUE;
+            }
+        }
+        return 0;
+    }
+
+    /* Description: returns the bucket of a duration. Durations below
+     *              SUB_BUCKETS have a bucket each; above that the highest bit
+     *              picks a group and the next SUB_BITS bits the bucket in it.
+     * Input: the duration, at least 0
+     * Output: the index of the bucket
+     */
+    private static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int highest = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        int shift = highest - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (nanos >>> shift) - SUB_BUCKETS;
+    }
+
+    /* Description: returns the smallest duration that falls in a bucket
+     * Input: the index of the bucket
+     * Output: the duration in nanoseconds
+     */
+    private static long lowestOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+    }
+}
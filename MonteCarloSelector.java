@@ -0,0 +1,257 @@
+/*
+ *
+ * Description: MonteCarloSelector class that suggests the next move of a game by
+ *              playing many quick games (playouts) after each of the four keys
+ *              and picking the key whose playouts scored best on average. The
+ *              playouts run in parallel on a work-stealing ForkJoinPool; every
+ *              worker thread keeps one RandomSource and one BitBoard for all
+ *              the playouts it ever runs for the selector, so splitting the
+ *              playouts into more tasks allocates nothing but the tasks. Which
+ *              worker plays which playout depends on the scheduling, so with a
+ *              seed the selections are only repeatable on one worker. One
+ *              selector should only be asked for moves by one thread at a
+ *              time.
+ *              Usage: java MonteCarloSelector [playoutsPerKey] [seed]
+ *
+ */
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class MonteCarloSelector {
+    // the keys that the selector tries
+    public static final String KEYS = BitBoard.KEYS;
+    // playouts per key when none is given
+    public static final int DEFAULT_PLAYOUTS = 1000;
+    // a task with at most this many playouts runs them instead of splitting
+    private static final int PLAYOUTS_PER_TASK = 32;
+
+    //the pool that runs the playouts
+    private ForkJoinPool pool;
+    //the source that every worker splits its own source from
+    private RandomSource random;
+    //the board and the source of each worker thread, made on its first playout
+    private ThreadLocal<Worker> workers;
+    //number of playouts for each key
+    private int playoutsPerKey;
+    //true to let playouts pick the key with the best immediate score
+    private boolean greedy;
+    //number of playouts run by the last selection
+    private long lastPlayouts;
+    //time taken by the last selection in nanoseconds
+    private long lastNanos;
+
+    /* Description: constructor for a selector with random playouts on the common
+     *              pool, which has one worker per core
+     * Input: the number of playouts for each key
+     * Output: none
+     */
+    public MonteCarloSelector(int playoutsPerKey) {
+        this(playoutsPerKey, false, ForkJoinPool.commonPool(), new SplittableRandomSource());
+    }
+
+    /* Description: constructor for a selector with the given settings
+     * Input: the number of playouts for each key, true for greedy instead of
+     *        random playouts, the pool to run them on and the source of the
+     *        random numbers
+     * Output: none
+     */
+    public MonteCarloSelector(int playoutsPerKey, boolean greedy, ForkJoinPool pool,
+                              RandomSource random) {
+        if (playoutsPerKey < 1) {
+            throw new IllegalArgumentException("playoutsPerKey must be at least 1");
+        }
+        this.playoutsPerKey = playoutsPerKey;
+        this.greedy = greedy;
+        this.pool = pool;
+        this.random = random;
+        workers = ThreadLocal.withInitial(this::newWorker);
+    }
+
+    /* Description: makes the board and the source of a worker thread, splitting
+     *              the source from that of the selector under its lock since
+     *              workers start at the same time
+     * Input: none
+     * Output: the new worker state
+     */
+    private Worker newWorker() {
+        RandomSource workerRandom;
+        synchronized (random) {
+            workerRandom = random.split();
+        }
+        return new Worker(new BitBoard(0L, workerRandom), workerRandom);
+    }
+
+    /* Description: suggests the next move for the board
+     * Input: the board
+     * Output: the suggested move, or null if the game is over
+     */
+    public SearchResult select(Board board) {
+        return select(board.getState());
+    }
+
+    /* Description: suggests the next move for a packed grid. The expected value
+     *              of the result is the average score the playouts gained.
+     * Input: the packed grid
+     * Output: the suggested move, or null if no key can move the grid
+     */
+    public SearchResult select(long board) {
+        long start = System.nanoTime();
+        PlayoutTask[] tasks = new PlayoutTask[KEYS.length()];
+        for (int legal = BitBoard.legalMoves(board); legal != 0; legal &= legal - 1) {
+            int k = Integer.numberOfTrailingZeros(legal);
+            tasks[k] = new PlayoutTask(board, KEYS.charAt(k), playoutsPerKey);
+            pool.execute(tasks[k]);
+        }
+        char bestKey = 0;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        long playouts = 0;
+        for (int k = 0; k < KEYS.length(); k++) {
+            if (tasks[k] == null) {
+                continue;
+            }
+            double value = (double) tasks[k].join() / playoutsPerKey;
+            playouts += playoutsPerKey;
+            if (value > bestValue) {
+                bestValue = value;
+                bestKey = KEYS.charAt(k);
+            }
+        }
+        lastPlayouts = playouts;
+        lastNanos = System.nanoTime() - start;
+        if (bestKey == 0) {
+            return null;
+        }
+        return new SearchResult(bestKey, bestValue, 1);
+    }
+
+    /* Description: returns how fast the last selection played its playouts
+     * Input: none
+     * Output: the playouts per second
+     */
+    public double getPlayoutsPerSecond() {
+        return lastNanos == 0 ? 0 : lastPlayouts * 1e9 / lastNanos;
+    }
+
+    /* Description: plays one game from the given position until it is over
+     * Input: the board to play on, reused between playouts, the source of the
+     *        keys and true to pick the key with the best immediate score
+     * Output: the score gained during the game
+     */
+    static int playout(BitBoard board, RandomSource random, boolean greedy) {
+        int start = board.getScore();
+        while (true) {
+            long state = board.getState();
+            int legal = BitBoard.legalMoves(state);
+            int bestScore = -1;
+            char bestKey = 0;
+            for (int left = legal; left != 0; left &= left - 1) {
+                char key = KEYS.charAt(Integer.numberOfTrailingZeros(left));
+                int score = BitBoard.scoreOf(state, key);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestKey = key;
+                }
+            }
+            if (legal == 0) {
+                return board.getScore() - start;
+            }
+            if (!greedy || bestScore == 0) {
+                int pick = random.nextInt(Integer.bitCount(legal));
+                bestKey = KEYS.charAt(BitBoard.selectBit(legal, pick));
+            }
+            board.shift(bestKey);
+        }
+    }
+
+    /*
+     * Description: Worker class with the board and the source of one worker
+     *              thread, which no other thread uses
+     */
+    private static class Worker {
+        //the board every playout of the thread is played on
+        private BitBoard buffer;
+        //the source of the keys and of the new tiles of the thread
+        private RandomSource random;
+
+        /* Description: constructor which keeps the state of a worker
+         * Input: the board and the source of the thread
+         * Output: none
+         */
+        Worker(BitBoard buffer, RandomSource random) {
+            this.buffer = buffer;
+            this.random = random;
+        }
+    }
+
+    /*
+     * Description: PlayoutTask class that plays a number of playouts after one
+     *              key, splitting them in halves until they are few enough to
+     *              play on one worker
+     */
+    private class PlayoutTask extends RecursiveTask<Long> {
+        // version of the serialized form
+        private static final long serialVersionUID = 1L;
+
+        //the packed grid before the key
+        private long board;
+        //the key that every playout starts with
+        private char key;
+        //number of playouts of this task
+        private int playouts;
+
+        /* Description: constructor which creates a task
+         * Input: the packed grid, the first key and the number of playouts
+         * Output: none
+         */
+        PlayoutTask(long board, char key, int playouts) {
+            this.board = board;
+            this.key = key;
+            this.playouts = playouts;
+        }
+
+        /* Description: plays the playouts on the board of the current worker or
+         *              splits them between two tasks
+         * Input: none
+         * Output: the total score the playouts gained
+         */
+        protected Long compute() {
+            if (playouts > PLAYOUTS_PER_TASK) {
+                int half = playouts / 2;
+                PlayoutTask first = new PlayoutTask(board, key, half);
+                PlayoutTask second = new PlayoutTask(board, key, playouts - half);
+                first.fork();
+                return second.compute() + first.join();
+            }
+            Worker worker = workers.get();
+            BitBoard buffer = worker.buffer;
+            long total = 0;
+            for (int p = 0; p < playouts; p++) {
+                buffer.setState(board, 0, 0);
+                buffer.shift(key);
+                total += BitBoard.scoreOf(board, key) + playout(buffer, worker.random, greedy);
+            }
+            return total;
+        }
+    }
+
+    public static void main(String[] args) {
+        int playouts = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PLAYOUTS;
+        RandomSource random = args.length > 1
+            ? new SplittableRandomSource(Long.parseLong(args[1]))
+            : new SplittableRandomSource();
+        MonteCarloSelector selector =
+            new MonteCarloSelector(playouts, false, ForkJoinPool.commonPool(), random.split());
+        Board board = new Board(random.split());
+        double playoutsPerSecond = 0;
+        while (!board.isGameOver() && !board.hasWonGame()) {
+            board.shift(selector.select(board).getDirection());
+            playoutsPerSecond += selector.getPlayoutsPerSecond();
+        }
+        System.out.println("Won: " + board.hasWonGame() + " after "
+                           + board.getNumberOfMoves() + " moves");
+        System.out.println("Workers: " + ForkJoinPool.commonPool().getParallelism()
+                           + ", playouts/s: "
+                           + Math.round(playoutsPerSecond / board.getNumberOfMoves()));
+    }
+}
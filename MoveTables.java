@@ -0,0 +1,173 @@
+/*
+ *
+ * Description: MoveTables class that precomputes the result of sliding every one
+ *              of the 65,536 possible 16-bit rows of a BitBoard, so that a move
+ *              is four table lookups (plus a transpose for 'w' and 's'). The
+ *              tables are built once when the class is loaded and are never
+ *              written again, so every thread can share them.
+ *
+ */
+
+public final class MoveTables {
+    // number of possible 16-bit rows
+    public static final int ROWS = 1 << 16;
+    //the row after sliding towards column 0, indexed by the row before
+    private static final char[] LEFT = new char[ROWS];
+    //the row after sliding towards column 3, indexed by the row before
+    private static final char[] RIGHT = new char[ROWS];
+    //the score gained by sliding towards column 0, indexed by the row before
+    private static final int[] SCORE_LEFT = new int[ROWS];
+    //the score gained by sliding towards column 3, indexed by the row before
+    private static final int[] SCORE_RIGHT = new int[ROWS];
+    //bit 0 set if sliding towards column 0 changes the row, bit 1 for column 3
+    private static final byte[] CHANGED = new byte[ROWS];
+    //the largest exponent in the row
+    private static final byte[] MAX_EXPONENT = new byte[ROWS];
+
+    static {
+        for (int row = 0; row < ROWS; row++) {
+            int left = slideRow(row);
+            int right = reverseRow(slideRow(reverseRow(row)));
+            LEFT[row] = (char) left;
+            RIGHT[row] = (char) right;
+            SCORE_LEFT[row] = rowScore(row);
+            SCORE_RIGHT[row] = rowScore(reverseRow(row));
+            CHANGED[row] = (byte) ((left != row ? 1 : 0) | (right != row ? 2 : 0));
+            for (int j = 0; j < BitBoard.GRID; j++) {
+                int exponent = (row >>> (BitBoard.CELL_BITS * j)) & BitBoard.CELL_MASK;
+                MAX_EXPONENT[row] = (byte) Math.max(MAX_EXPONENT[row], exponent);
+            }
+        }
+    }
+
+    /* Description: private constructor since the class only holds tables
+     * Input: none
+     * Output: none
+     */
+    private MoveTables() {
+    }
+
+    /* Description: returns the row after sliding it towards column 0
+     * Input: the packed row
+     * Output: the moved row
+     */
+    public static int left(int row) {
+        return LEFT[row];
+    }
+
+    /* Description: returns the row after sliding it towards column 3
+     * Input: the packed row
+     * Output: the moved row
+     */
+    public static int right(int row) {
+        return RIGHT[row];
+    }
+
+    /* Description: returns the score gained by sliding the row towards column 0
+     * Input: the packed row
+     * Output: the sum of the tiles created by merging
+     */
+    public static int scoreLeft(int row) {
+        return SCORE_LEFT[row];
+    }
+
+    /* Description: returns the score gained by sliding the row towards column 3
+     * Input: the packed row
+     * Output: the sum of the tiles created by merging
+     */
+    public static int scoreRight(int row) {
+        return SCORE_RIGHT[row];
+    }
+
+    /* Description: returns true if sliding the row towards column 0 changes it
+     * Input: the packed row
+     * Output: true if a tile moves or merges and false otherwise
+     */
+    public static boolean changesLeft(int row) {
+        return (CHANGED[row] & 1) != 0;
+    }
+
+    /* Description: returns true if sliding the row towards column 3 changes it
+     * Input: the packed row
+     * Output: true if a tile moves or merges and false otherwise
+     */
+    public static boolean changesRight(int row) {
+        return (CHANGED[row] & 2) != 0;
+    }
+
+    /* Description: returns in which directions sliding the row changes it
+     * Input: the packed row
+     * Output: bit 0 set if sliding towards column 0 changes the row, bit 1 if
+     *         sliding towards column 3 does
+     */
+    public static int changes(int row) {
+        return CHANGED[row];
+    }
+
+    /* Description: returns the largest exponent in the row
+     * Input: the packed row
+     * Output: the exponent of the largest tile, 0 if the row is empty
+     */
+    public static int maxExponent(int row) {
+        return MAX_EXPONENT[row];
+    }
+
+    /* Description: slides and merges a single 16-bit row towards column 0. Two
+     *              tiles merge once per move, and 32768 tiles never merge since
+     *              their sum does not fit in a cell.
+     * Input: the packed row
+     * Output: the moved row
+     */
+    private static int slideRow(int row) {
+        int result = 0;
+        int position = 0;
+        int last = 0;
+        for (int j = 0; j < BitBoard.GRID; j++) {
+            int exponent = (row >>> (BitBoard.CELL_BITS * j)) & BitBoard.CELL_MASK;
+            if (exponent == 0) {
+                continue;
+            }
+            if (exponent == last && exponent < BitBoard.CELL_MASK) {
+                result += 1 << (BitBoard.CELL_BITS * (position - 1));
+                last = 0;
+            } else {
+                result |= exponent << (BitBoard.CELL_BITS * position);
+                position++;
+                last = exponent;
+            }
+        }
+        return result;
+    }
+
+    /* Description: adds up the value of every tile that sliding the row towards
+     *              column 0 creates by merging
+     * Input: the packed row
+     * Output: the score gained by the row
+     */
+    private static int rowScore(int row) {
+        int total = 0;
+        int last = 0;
+        for (int j = 0; j < BitBoard.GRID; j++) {
+            int exponent = (row >>> (BitBoard.CELL_BITS * j)) & BitBoard.CELL_MASK;
+            if (exponent == 0) {
+                continue;
+            }
+            if (exponent == last && exponent < BitBoard.CELL_MASK) {
+                total += 1 << (exponent + 1);
+                last = 0;
+            } else {
+                last = exponent;
+            }
+        }
+        return total;
+    }
+
+    /* Description: mirrors a 16-bit row so that column j becomes column 3 - j
+     * Input: the packed row
+     * Output: the mirrored row
+     */
+    public static int reverseRow(int row) {
+        return ((row & 0xF) << 12) | ((row & 0xF0) << 4)
+            | ((row >>> 4) & 0xF0) | ((row >>> 12) & 0xF);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ *
+ * Description: NTupleAgent class that implements the Policy with a trained
+ *              NTupleNetwork. It scores each key by the points its merges make
+ *              plus the value of the position right after the move, before the
+ *              new tile, and picks the best one; that is four moves and a few
+ *              hundred table reads, without any search.
+ *
+ */
+
+public class NTupleAgent implements Policy {
+    // the keys that the agent can pick
+    private static final String KEYS = BitBoard.KEYS;
+    //the value function
+    private NTupleNetwork network;
+
+    /* Description: constructor for an agent playing with the given network
+     * Input: the network, which may still be trained by other threads
+     * Output: none
+     */
+    public NTupleAgent(NTupleNetwork network) {
+        this.network = network;
+    }
+
+    /* Description: picks the key with the best score plus value of the position
+     *              after the move
+     * Input: the board, and a random source that the agent does not need
+     * Output: the character key of the move, or 0 if no key can move the board
+     */
+    public char chooseMove(BitBoard board, RandomSource random) {
+        return bestKey(network, board.getState());
+    }
+
+    /* Description: picks the key with the best score plus value of the position
+     *              after the move for a packed grid
+     * Input: the network and the packed grid
+     * Output: the character key of the move, or 0 if no key can move the grid
+     */
+    public static char bestKey(NTupleNetwork network, long board) {
+        char bestKey = 0;
+        float bestValue = Float.NEGATIVE_INFINITY;
+        for (int legal = BitBoard.legalMoves(board); legal != 0; legal &= legal - 1) {
+            char key = KEYS.charAt(Integer.numberOfTrailingZeros(legal));
+            long after = BitBoard.move(board, key);
+            float value = BitBoard.scoreOf(board, key) + network.value(after);
+            if (value > bestValue) {
+                bestValue = value;
+                bestKey = key;
+            }
+        }
+        return bestKey;
+    }
+
+    /* Description: nothing is kept between games
+     * Input: none
+     * Output: none
+     */
+    public void newGame() {
+    }
+}
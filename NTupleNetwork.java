@@ -0,0 +1,210 @@
+/*
+ *
+ * Description: NTupleNetwork class that scores 4x4 positions with an n-tuple
+ *              network. Each tuple is a short list of cells; the exponents in
+ *              those cells, 4 bits each, form an index into the tuple's table of
+ *              weights, and the value of a position is the sum of the weights
+ *              its tuples point to. Every tuple is also read in its 8 mirrored
+ *              and rotated forms, which share the same weights. All tables live
+ *              in one flat float array, so a position is scored with a few
+ *              dozen array reads. Several threads may train one network at the
+ *              same time without locks; an update that another thread
+ *              overwrites is simply lost, which barely affects learning.
+ *
+ */
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class NTupleNetwork {
+    // first 4 bytes of every weight file, "NTUP" in ASCII
+    public static final int MAGIC = 0x4E545550;
+    // version of the weight file format
+    public static final int VERSION = 1;
+    // the tuples used when none are given: two rows and three 2x2 squares
+    public static final int[][] DEFAULT_TUPLES = {
+        {0, 1, 2, 3}, {4, 5, 6, 7}, {0, 1, 4, 5}, {1, 2, 5, 6}, {5, 6, 9, 10}
+    };
+    // number of mirrored and rotated forms of a tuple
+    private static final int SYMMETRIES = Symmetry.COUNT;
+
+    //the cells of each tuple as given
+    private int[][] tuples;
+    //the cells of every form of every tuple, one after the other
+    private int[] cells;
+    //the number of cells of every form, in the same order as cells
+    private int[] lengths;
+    //index in weights of the table of every form
+    private int[] offsets;
+    //the weight tables of all tuples
+    private float[] weights;
+
+    /* Description: Default constructor for a network of the DEFAULT_TUPLES with
+     *              every weight 0
+     * Input: none
+     * Output: none
+     */
+    public NTupleNetwork() {
+        this(DEFAULT_TUPLES);
+    }
+
+    /* Description: constructor for a network of the given tuples with every
+     *              weight 0
+     * Input: the cells 4 * i + j of each tuple, at most 7 cells per tuple
+     * Output: none
+     */
+    public NTupleNetwork(int[][] tuples) {
+        this.tuples = tuples;
+        int forms = tuples.length * SYMMETRIES;
+        lengths = new int[forms];
+        offsets = new int[forms];
+        int totalCells = 0;
+        long totalWeights = 0;
+        for (int t = 0; t < tuples.length; t++) {
+            if (tuples[t].length < 1 || tuples[t].length > 7) {
+                throw new IllegalArgumentException("a tuple has 1 to 7 cells");
+            }
+            for (int s = 0; s < SYMMETRIES; s++) {
+                lengths[t * SYMMETRIES + s] = tuples[t].length;
+                offsets[t * SYMMETRIES + s] = (int) totalWeights;
+            }
+            totalCells += SYMMETRIES * tuples[t].length;
+            totalWeights += 1L << (BitBoard.CELL_BITS * tuples[t].length);
+        }
+        if (totalWeights > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("the tuples need too many weights");
+        }
+        cells = new int[totalCells];
+        int next = 0;
+        for (int t = 0; t < tuples.length; t++) {
+            for (int s = 0; s < SYMMETRIES; s++) {
+                for (int k = 0; k < tuples[t].length; k++) {
+                    cells[next++] = Symmetry.transformCell(tuples[t][k], s);
+                }
+            }
+        }
+        weights = new float[(int) totalWeights];
+    }
+
+    /* Description: returns the number of weights a position reads, which is the
+     *              number of forms of all tuples
+     * Input: none
+     * Output: the number of weights summed per position
+     */
+    public int getNumberOfFeatures() {
+        return offsets.length;
+    }
+
+    /* Description: getter to get the number of weights of the network
+     * Input: none
+     * Output: the length of the weight tables
+     */
+    public int getNumberOfWeights() {
+        return weights.length;
+    }
+
+    /* Description: scores a position
+     * Input: the packed grid
+     * Output: the sum of the weights of every form of every tuple
+     */
+    public float value(long board) {
+        float total = 0;
+        int next = 0;
+        for (int f = 0; f < offsets.length; f++) {
+            int index = 0;
+            for (int k = 0; k < lengths[f]; k++) {
+                index |= BitBoard.exponentAt(board, cells[next++]) << (BitBoard.CELL_BITS * k);
+            }
+            total += weights[offsets[f] + index];
+        }
+        return total;
+    }
+
+    /* Description: adds the same amount to every weight a position reads, which
+     *              moves its value by that amount times the number of features
+     * Input: the packed grid and the amount to add to each weight
+     * Output: none
+     */
+    public void update(long board, float delta) {
+        int next = 0;
+        for (int f = 0; f < offsets.length; f++) {
+            int index = 0;
+            for (int k = 0; k < lengths[f]; k++) {
+                index |= BitBoard.exponentAt(board, cells[next++]) << (BitBoard.CELL_BITS * k);
+            }
+            weights[offsets[f] + index] += delta;
+        }
+    }
+
+    /* Description: writes the tuples and the weights to a file through a memory
+     *              mapping. The file starts with MAGIC, VERSION and the number
+     *              of tuples, then the number of cells and the cells of each
+     *              tuple, then the number of weights and the weights, all
+     *              big-endian.
+     * Input: the path of the file, which is replaced
+     * Output: none
+     */
+    public void save(Path path) throws IOException {
+        long length = headerBytes(tuples) + 4L * weights.length;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(tuples.length);
+            for (int t = 0; t < tuples.length; t++) {
+                buffer.putInt(tuples[t].length);
+                for (int k = 0; k < tuples[t].length; k++) {
+                    buffer.putInt(tuples[t][k]);
+                }
+            }
+            buffer.putInt(weights.length);
+            buffer.asFloatBuffer().put(weights);
+            buffer.force();
+        }
+    }
+
+    /* Description: reads a network written by save. The file is memory-mapped
+     *              and the weights are copied from the mapping into the tables
+     *              in one bulk read.
+     * Input: the path of the file
+     * Output: the network
+     */
+    public static NTupleNetwork load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException(path + " is not an n-tuple weight file");
+            }
+            int[][] tuples = new int[buffer.getInt()][];
+            for (int t = 0; t < tuples.length; t++) {
+                tuples[t] = new int[buffer.getInt()];
+                for (int k = 0; k < tuples[t].length; k++) {
+                    tuples[t][k] = buffer.getInt();
+                }
+            }
+            NTupleNetwork network = new NTupleNetwork(tuples);
+            if (buffer.getInt() != network.weights.length
+                || buffer.remaining() != 4L * network.weights.length) {
+                throw new IOException(path + " has the wrong number of weights");
+            }
+            buffer.asFloatBuffer().get(network.weights);
+            return network;
+        }
+    }
+
+    /* Description: returns the number of bytes in front of the weights of a file
+     * Input: the tuples
+     * Output: the length of the header in bytes
+     */
+    private static long headerBytes(int[][] tuples) {
+        long bytes = 4 * 4;
+        for (int t = 0; t < tuples.length; t++) {
+            bytes += 4 * (1 + tuples[t].length);
+        }
+        return bytes;
+    }
+}
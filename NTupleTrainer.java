@@ -0,0 +1,205 @@
+/*
+ *
+ * Description: Where an NTupleNetwork learns to play by playing against itself
+ *              with TD(0) learning on afterstates, the positions right after a
+ *              move and before its new tile. After each move the value of the
+ *              previous afterstate is moved towards the score of the chosen
+ *              move plus the value of the new afterstate, and at the end of a
+ *              game towards 0. Every thread plays its own games and updates the
+ *              shared weights without locks. The weights are saved to the
+ *              checkpoint file with every progress report and at the end, so a
+ *              run that is stopped loses at most REPORT_INTERVAL of training,
+ *              and training continues from the checkpoint when the file
+ *              already exists. A checkpoint is written to a temporary file and
+ *              then moved over the old one, so the file is always complete.
+ *              Usage: java NTupleTrainer [numberOfGames] [checkpointFile] [threads]
+ *                                        [seed] [learningRate]
+ *
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class NTupleTrainer {
+    // number of games played when none is given
+    private static final long DEFAULT_GAMES = 100000;
+    // file the weights are saved to when none is given
+    private static final String DEFAULT_CHECKPOINT = "ntuple.weights";
+    // step size of the updates when none is given, shared by all features
+    public static final double DEFAULT_LEARNING_RATE = 0.1;
+    // time between two progress reports, in milliseconds
+    private static final long REPORT_INTERVAL = 10000;
+
+    //the network that is trained
+    private NTupleNetwork network;
+    //amount each weight moves per point of error
+    private float step;
+
+    /* Description: constructor for a trainer of the given network
+     * Input: the network and the learning rate, which is split between the
+     *        features of a position
+     * Output: none
+     */
+    public NTupleTrainer(NTupleNetwork network, double learningRate) {
+        this.network = network;
+        step = (float) (learningRate / network.getNumberOfFeatures());
+    }
+
+    /* Description: plays one game with the network and learns from every move
+     * Input: the source of the new tiles
+     * Output: the board at the end of the game
+     */
+    public BitBoard trainGame(RandomSource random) {
+        BitBoard board = new BitBoard(random);
+        long previous = 0;
+        boolean hasPrevious = false;
+        while (!board.isGameOver()) {
+            long state = board.getState();
+            char key = NTupleAgent.bestKey(network, state);
+            if (key == 0) {
+                break;
+            }
+            long after = BitBoard.move(state, key);
+            if (hasPrevious) {
+                learn(previous, BitBoard.scoreOf(state, key) + network.value(after));
+            }
+            previous = after;
+            hasPrevious = true;
+            board.shift(key);
+        }
+        if (hasPrevious) {
+            learn(previous, 0);
+        }
+        return board;
+    }
+
+    /* Description: moves the value of an afterstate towards a target
+     * Input: the packed afterstate and its target value
+     * Output: none
+     */
+    private void learn(long afterstate, float target) {
+        network.update(afterstate, step * (target - network.value(afterstate)));
+    }
+
+    /*
+     * Description: Worker class that trains on games until the number of games
+     *              of the run has been played
+     */
+    private static class Worker implements Runnable {
+        //the trainer shared by every worker
+        private NTupleTrainer trainer;
+        //the source of this worker, used by its thread only
+        private RandomSource random;
+        //number of games of the run
+        private long games;
+        //number of games that no thread has started
+        private AtomicLong nextGame;
+        //sum of the scores of the finished games
+        private LongAdder scores;
+        //number of finished games that reached 2048
+        private LongAdder wins;
+        //number of finished games
+        private LongAdder finished;
+
+        /* Description: constructor which creates a worker
+         * Input: the trainer, the source of the worker, the number of games,
+         *        the index of the next game and the totals to add to
+         * Output: none
+         */
+        Worker(NTupleTrainer trainer, RandomSource random, long games, AtomicLong nextGame,
+               LongAdder scores, LongAdder wins, LongAdder finished) {
+            this.trainer = trainer;
+            this.random = random;
+            this.games = games;
+            this.nextGame = nextGame;
+            this.scores = scores;
+            this.wins = wins;
+            this.finished = finished;
+        }
+
+        /* Description: plays games until all games are taken
+         * Input: none
+         * Output: none
+         */
+        public void run() {
+            while (nextGame.getAndIncrement() < games) {
+                BitBoard board = trainer.trainGame(random.split());
+                scores.add(board.getScore());
+                if (board.hasWonGame()) {
+                    wins.increment();
+                }
+                finished.increment();
+            }
+        }
+    }
+
+    /* Description: saves the weights to the checkpoint file through a temporary
+     *              file in the same directory, which is moved over the
+     *              checkpoint once it is complete. The workers keep training
+     *              while the weights are copied, as they do between reports.
+     * Input: the network and the path of the checkpoint
+     * Output: none
+     */
+    public static void saveCheckpoint(NTupleNetwork network, Path checkpoint) throws IOException {
+        Path temporary = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        network.save(temporary);
+        Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_GAMES;
+        Path checkpoint = Paths.get(args.length > 1 ? args[1] : DEFAULT_CHECKPOINT);
+        int threads = args.length > 2 ? Integer.parseInt(args[2])
+            : Runtime.getRuntime().availableProcessors();
+        RandomSource random = args.length > 3
+            ? new SplittableRandomSource(Long.parseLong(args[3]))
+            : new SplittableRandomSource();
+        double learningRate = args.length > 4 ? Double.parseDouble(args[4]) : DEFAULT_LEARNING_RATE;
+        NTupleNetwork network = Files.exists(checkpoint)
+            ? NTupleNetwork.load(checkpoint) : new NTupleNetwork();
+        NTupleTrainer trainer = new NTupleTrainer(network, learningRate);
+
+        AtomicLong nextGame = new AtomicLong();
+        LongAdder scores = new LongAdder();
+        LongAdder wins = new LongAdder();
+        LongAdder finished = new LongAdder();
+        Thread[] running = new Thread[threads];
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            running[t] = new Thread(new Worker(trainer, random.split(), games, nextGame,
+                                               scores, wins, finished), "trainer-" + t);
+            running[t].start();
+        }
+        long reportedGames = 0;
+        long reportedScores = 0;
+        long reportedWins = 0;
+        for (int t = 0; t < threads; t++) {
+            while (running[t].isAlive()) {
+                running[t].join(REPORT_INTERVAL);
+                long done = finished.sum();
+                if (done > reportedGames) {
+                    long score = scores.sum();
+                    long won = wins.sum();
+                    System.out.printf("Games: %d, last %d: average score %.0f, won %.1f%%%n",
+                                      done, done - reportedGames,
+                                      (double) (score - reportedScores) / (done - reportedGames),
+                                      100.0 * (won - reportedWins) / (done - reportedGames));
+                    reportedGames = done;
+                    reportedScores = score;
+                    reportedWins = won;
+                    saveCheckpoint(network, checkpoint);
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        saveCheckpoint(network, checkpoint);
+        System.out.printf("Trained %d games in %.1f s (%.0f games/s) on %d threads, saved to %s%n",
+                          games, seconds, games / seconds, threads, checkpoint);
+    }
+}
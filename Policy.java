@@ -0,0 +1,24 @@
+/* 
+ * 
+ * Description: the API for a player of the 2048 game, which picks the key of the
+ *              next move for a position. A policy may keep state between moves,
+ *              so each thread uses its own.
+ * 
+ */
+
+public interface Policy {
+    
+    /* Description: picks the next move for a board
+     * Input: the board, which is not changed, and the source of any random 
+     *        choices of the policy
+     * Output: the character key of the move, or 0 if no key can move the board
+     */
+    char chooseMove(BitBoard board, RandomSource random);
+
+    /* Description: tells the policy that a new game starts, so that nothing it
+     *              kept from the last game changes its choices
+     * Input: none
+     * Output: none
+     */
+    void newGame();
+}
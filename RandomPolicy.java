@@ -0,0 +1,30 @@
+/*
+ *
+ * Description: RandomPolicy class that implements the Policy by picking one of
+ *              the keys that change the board, each with the same chance.
+ *
+ */
+
+public class RandomPolicy implements Policy {
+    // the keys that the policy can pick, in the order of their bits in legalMoves
+    private static final String KEYS = BitBoard.KEYS;
+
+    /* Description: picks a random key among the ones that change the board
+     * Input: the board and the source of the random choice
+     * Output: the character key of the move, or 0 if no key can move the board
+     */
+    public char chooseMove(BitBoard board, RandomSource random) {
+        int legal = board.legalMoves();
+        if (legal == 0) {
+            return 0;
+        }
+        return KEYS.charAt(BitBoard.selectBit(legal, random.nextInt(Integer.bitCount(legal))));
+    }
+
+    /* Description: nothing is kept between games
+     * Input: none
+     * Output: none
+     */
+    public void newGame() {
+    }
+}
@@ -0,0 +1,31 @@
+/* 
+ * 
+ * Description: the API for the random numbers used by the game, such as where a
+ *              new tile appears and whether it is a 2 or a 4. A source is not
+ *              shared between threads; each thread splits off its own.
+ * 
+ */
+
+public interface RandomSource {
+    
+    /* Description: returns a random number between 0 and bound
+     * Input: the bound, which must be positive
+     * Output: a uniformly chosen int from 0 (inclusive) to bound (exclusive)
+     */
+    int nextInt(int bound);
+    
+    /* Description: getter to get the seed that started this source. Two sources
+     *              with the same seed return the same numbers.
+     * Input: none
+     * Output: the seed
+     */
+    long getSeed();
+    
+    /* Description: creates a new independent source, for example for another 
+     *              game or another thread. The new source is determined by this
+     *              one, so splitting a seeded source is reproducible.
+     * Input: none
+     * Output: the new source
+     */
+    RandomSource split();
+}
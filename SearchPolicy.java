@@ -0,0 +1,52 @@
+/*
+ *
+ * Description: SearchPolicy class that implements the Policy with an
+ *              ExpectimaxSearcher, searching a fixed number of moves ahead so
+ *              that games are decided by the position and not by the clock.
+ *
+ */
+
+public class SearchPolicy implements Policy {
+    // moves searched ahead when no depth is given
+    public static final int DEFAULT_DEPTH = 2;
+    // time a search may take, long enough that the depth always decides
+    private static final long BUDGET_NANOS = 60000000000L;
+    //the searcher, used by one thread only
+    private ExpectimaxSearcher searcher;
+
+    /* Description: Default constructor for a policy that searches DEFAULT_DEPTH
+     *              moves ahead
+     * Input: none
+     * Output: none
+     */
+    public SearchPolicy() {
+        this(DEFAULT_DEPTH);
+    }
+
+    /* Description: constructor for a policy that searches the given number of
+     *              moves ahead
+     * Input: the depth in moves
+     * Output: none
+     */
+    public SearchPolicy(int depth) {
+        searcher = new ExpectimaxSearcher(depth, ExpectimaxSearcher.DEFAULT_PROBABILITY_THRESHOLD);
+    }
+
+    /* Description: picks the key with the best expected value
+     * Input: the board, and a random source that the search does not need
+     * Output: the character key of the move, or 0 if no key can move the board
+     */
+    public char chooseMove(BitBoard board, RandomSource random) {
+        SearchResult result = searcher.search(board.getState(), BUDGET_NANOS);
+        return result == null ? 0 : result.getDirection();
+    }
+
+    /* Description: empties the transposition table, whose values were pruned
+     *              by the probabilities of the last game's positions
+     * Input: none
+     * Output: none
+     */
+    public void newGame() {
+        searcher.clearTable();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * 
+ * Description: SearchResult class which holds the move a search suggests, the 
+ *              value it expects from that move and how deep it looked.
+ */
+
+public class SearchResult {
+    //the key of the suggested move, one of 'w', 'a', 's', 'd'
+    private char direction;
+    //the value the search expects after the move
+    private double expectedValue;
+    //the depth of the deepest finished search
+    private int depth;
+    
+    /* Description: constructor which creates a result
+     * Input: the key of the move, its expected value and the depth searched
+     * Output: none
+     */
+    public SearchResult(char direction, double expectedValue, int depth) {
+        this.direction = direction;
+        this.expectedValue = expectedValue;
+        this.depth = depth;
+    }
+    
+    /* Description: getter to get the key of the suggested move, which can be
+     *              passed to Board.shift
+     * Input: none
+     * Output: the key of the move
+     */
+    public char getDirection() {
+        return direction;
+    }
+    
+    /* Description: getter to get the value the search expects after the move
+     * Input: none
+     * Output: the expected value
+     */
+    public double getExpectedValue() {
+        return expectedValue;
+    }
+    
+    /* Description: getter to get the depth of the deepest finished search
+     * Input: none
+     * Output: the depth in moves
+     */
+    public int getDepth() {
+        return depth;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * 
+ * Description: SplittableRandomSource class that implements the RandomSource 
+ *              with a java.util.SplittableRandom, which is fast and not 
+ *              synchronized, so it should only be used by one thread at a time.
+ */
+
+import java.util.SplittableRandom;
+
+public class SplittableRandomSource implements RandomSource {
+    //the seed that started this source
+    private long seed;
+    //the generator of the numbers
+    private SplittableRandom random;
+    
+    /* Description: constructor which creates a source with a random seed
+     * Input: none
+     * Output: none
+     */
+    public SplittableRandomSource() {
+        this(new SplittableRandom().nextLong());
+    }
+    
+    /* Description: constructor which creates a source from the given seed
+     * Input: the seed
+     * Output: none
+     */
+    public SplittableRandomSource(long seed) {
+        this.seed = seed;
+        random = new SplittableRandom(seed);
+    }
+    
+    /* Description: returns a random number between 0 and bound
+     * Input: the bound, which must be positive
+     * Output: a uniformly chosen int from 0 (inclusive) to bound (exclusive)
+     */
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+    
+    /* Description: getter to get the seed that started this source
+     * Input: none
+     * Output: the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+    
+    /* Description: creates a new source seeded from the next number of this one
+     * Input: none
+     * Output: the new source
+     */
+    public RandomSource split() {
+        return new SplittableRandomSource(random.nextLong());
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ *
+ * Description: Symmetry class with the 8 symmetries of a packed 4x4 grid: the 4
+ *              rotations, each with or without a mirror. Symmetry s flips the
+ *              rows (row i becomes row 3 - i) when bit 0 is set, then flips the
+ *              columns when bit 1 is set, then transposes the grid when bit 2
+ *              is set. Each transform is a handful of shifts and masks on the
+ *              long. The canonical form of a grid is the smallest of its 8
+ *              forms, so that mirrored and rotated positions can share one
+ *              entry in a cache or a table; mapKey turns a move found on a
+ *              transformed grid back into the key for the original one.
+ *
+ */
+
+public final class Symmetry {
+    // number of symmetries of a square grid
+    public static final int COUNT = 8;
+    // the keys in the order of KEY_MAP
+    private static final String KEYS = "wasd";
+    //the symmetry that undoes each symmetry
+    private static final int[] INVERSE = new int[COUNT];
+    //the key on the transformed grid for each symmetry and key on the original
+    private static final char[][] KEY_MAP = new char[COUNT][KEYS.length()];
+
+    static {
+        for (int s = 0; s < COUNT; s++) {
+            for (int k = 0; k < KEYS.length(); k++) {
+                char key = KEYS.charAt(k);
+                if ((s & 1) != 0) {
+                    key = key == 'w' ? 's' : key == 's' ? 'w' : key;
+                }
+                if ((s & 2) != 0) {
+                    key = key == 'a' ? 'd' : key == 'd' ? 'a' : key;
+                }
+                if ((s & 4) != 0) {
+                    key = "dsaw".charAt(KEYS.indexOf(key));
+                }
+                KEY_MAP[s][k] = key;
+            }
+        }
+        long cells = 0xFEDCBA9876543210L;
+        for (int s = 0; s < COUNT; s++) {
+            for (int t = 0; t < COUNT; t++) {
+                if (apply(apply(cells, s), t) == cells) {
+                    INVERSE[s] = t;
+                }
+            }
+        }
+    }
+
+    /* Description: private constructor since the class only holds functions
+     * Input: none
+     * Output: none
+     */
+    private Symmetry() {
+    }
+
+    /* Description: swaps rows and columns, so that cell (i, j) moves to (j, i)
+     * Input: the packed grid
+     * Output: the transposed grid
+     */
+    public static long transpose(long board) {
+        return BitBoard.transpose(board);
+    }
+
+    /* Description: mirrors the grid left to right, so that cell (i, j) moves to
+     *              (i, 3 - j)
+     * Input: the packed grid
+     * Output: the mirrored grid
+     */
+    public static long flipColumns(long board) {
+        return (board & 0x000F000F000F000FL) << 12 | (board & 0x00F000F000F000F0L) << 4
+            | (board >>> 4) & 0x00F000F000F000F0L | (board >>> 12) & 0x000F000F000F000FL;
+    }
+
+    /* Description: mirrors the grid top to bottom, so that cell (i, j) moves to
+     *              (3 - i, j)
+     * Input: the packed grid
+     * Output: the mirrored grid
+     */
+    public static long flipRows(long board) {
+        return board << 48 | (board & 0xFFFF0000L) << 16
+            | (board >>> 16) & 0xFFFF0000L | board >>> 48;
+    }
+
+    /* Description: turns the grid a quarter turn counterclockwise as drawn,
+     *              with row 0 at the bottom, so that cell (i, j) moves to
+     *              (j, 3 - i)
+     * Input: the packed grid
+     * Output: the turned grid
+     */
+    public static long rotate(long board) {
+        return flipColumns(transpose(board));
+    }
+
+    /* Description: applies one of the 8 symmetries
+     * Input: the packed grid and the symmetry, from 0 to 7
+     * Output: the transformed grid
+     */
+    public static long apply(long board, int symmetry) {
+        if ((symmetry & 1) != 0) {
+            board = flipRows(board);
+        }
+        if ((symmetry & 2) != 0) {
+            board = flipColumns(board);
+        }
+        if ((symmetry & 4) != 0) {
+            board = transpose(board);
+        }
+        return board;
+    }
+
+    /* Description: returns the symmetry that undoes the given one
+     * Input: the symmetry, from 0 to 7
+     * Output: the inverse symmetry
+     */
+    public static int inverse(int symmetry) {
+        return INVERSE[symmetry];
+    }
+
+    /* Description: returns where a cell ends up under a symmetry
+     * Input: the cell 4 * i + j and the symmetry, from 0 to 7
+     * Output: the cell it moves to
+     */
+    public static int transformCell(int cell, int symmetry) {
+        int i = cell / BitBoard.GRID;
+        int j = cell % BitBoard.GRID;
+        if ((symmetry & 1) != 0) {
+            i = BitBoard.GRID - 1 - i;
+        }
+        if ((symmetry & 2) != 0) {
+            j = BitBoard.GRID - 1 - j;
+        }
+        if ((symmetry & 4) != 0) {
+            int swap = i;
+            i = j;
+            j = swap;
+        }
+        return BitBoard.GRID * i + j;
+    }
+
+    /* Description: returns the key that makes the same move on the transformed
+     *              grid as the given key makes on the original grid
+     * Input: the character key and the symmetry, from 0 to 7
+     * Output: the key on the transformed grid, or the key itself if it is not
+     *         a direction
+     */
+    public static char transformKey(char key, int symmetry) {
+        int k = KEYS.indexOf(key);
+        return k < 0 ? key : KEY_MAP[symmetry][k];
+    }
+
+    /* Description: turns a key chosen on a transformed grid into the key for the
+     *              original grid, which can be passed to Board.shift
+     * Input: the key on the transformed grid and the symmetry that made it
+     * Output: the key on the original grid
+     */
+    public static char mapKey(char key, int symmetry) {
+        return transformKey(key, INVERSE[symmetry]);
+    }
+
+    /* Description: returns the symmetry that turns a grid into its canonical
+     *              form, the smallest of its 8 forms
+     * Input: the packed grid
+     * Output: the symmetry, from 0 to 7
+     */
+    public static int canonicalSymmetry(long board) {
+        long flippedRows = flipRows(board);
+        long best = board;
+        int bestSymmetry = 0;
+        long form = flippedRows;
+        if (form < best) {
+            best = form;
+            bestSymmetry = 1;
+        }
+        form = flipColumns(board);
+        if (form < best) {
+            best = form;
+            bestSymmetry = 2;
+        }
+        long flippedBoth = flipColumns(flippedRows);
+        if (flippedBoth < best) {
+            best = flippedBoth;
+            bestSymmetry = 3;
+        }
+        long transposed = transpose(board);
+        if (transposed < best) {
+            best = transposed;
+            bestSymmetry = 4;
+        }
+        form = transpose(flippedRows);
+        if (form < best) {
+            best = form;
+            bestSymmetry = 5;
+        }
+        form = transpose(flipColumns(board));
+        if (form < best) {
+            best = form;
+            bestSymmetry = 6;
+        }
+        if (transpose(flippedBoth) < best) {
+            bestSymmetry = 7;
+        }
+        return bestSymmetry;
+    }
+
+    /* Description: returns the canonical form of a grid, which is the same for
+     *              all 8 of its mirrored and rotated forms
+     * Input: the packed grid
+     * Output: the smallest of its 8 forms
+     */
+    public static long canonical(long board) {
+        long flippedRows = flipRows(board);
+        long flippedColumns = flipColumns(board);
+        long flippedBoth = flipColumns(flippedRows);
+        long best = Math.min(Math.min(board, flippedRows), Math.min(flippedColumns, flippedBoth));
+        long transposed = Math.min(Math.min(transpose(board), transpose(flippedRows)),
+                                   Math.min(transpose(flippedColumns), transpose(flippedBoth)));
+        return Math.min(best, transposed);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ *
+ * Description: Where the 2048 game is played in a terminal, for machines without
+ *              a display such as a server reached over SSH. The keys are read
+ *              from stdin: w, a, s and d move the tiles, 'u' takes back the
+ *              last move and 'r' plays it again, also after the game is over,
+ *              and 'q' quits. When stdin is a terminal it is switched to raw
+ *              mode with stty so that every key counts at once; otherwise, for
+ *              example when the keys are piped in, they are read as they come.
+ *              A TerminalRenderer draws only what each move changed, and the
+ *              number of bytes written per move is printed at the end.
+ *              Usage: java TerminalGame [size] [seed]
+ *
+ */
+
+import java.io.IOException;
+
+public class TerminalGame {
+    // key that takes back the last move
+    private static final char UNDO_KEY = 'u';
+    // key that plays the last undone move again
+    private static final char REDO_KEY = 'r';
+    // key that ends the game
+    private static final char QUIT_KEY = 'q';
+
+    /* Description: plays one key on the board; the renderer draws the result as
+     *              an observer of the board
+     * Input: the board and the character key
+     * Output: none
+     */
+    public static void handleKey(Board board, char c) {
+        if (c == UNDO_KEY) {
+            board.undo();
+        } else if (c == REDO_KEY) {
+            board.redo();
+        } else if (!board.hasWonGame() && !board.isGameOver()) {
+            board.shift(c);
+        }
+    }
+
+    /* Description: switches the terminal on stdin in or out of raw mode, where
+     *              keys are read one at a time without echo
+     * Input: true for raw mode and false to restore the usual mode
+     * Output: true if stty succeeded and false otherwise
+     */
+    private static boolean setRawMode(boolean raw) {
+        String mode = raw ? "-icanon -echo min 1" : "icanon echo";
+        try {
+            Process stty = new ProcessBuilder("sh", "-c", "stty " + mode + " < /dev/tty")
+                .inheritIO().start();
+            return stty.waitFor() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : Board.DEFAULT_SIZE;
+        RandomSource random = args.length > 1
+            ? new SplittableRandomSource(Long.parseLong(args[1]))
+            : new SplittableRandomSource();
+        Board board = new Board(size, random);
+        if (board.isPacked()) {
+            board.enableHistory(BoardHistory.DEFAULT_CAPACITY);
+        }
+        TerminalRenderer renderer = new TerminalRenderer(board, System.out);
+        board.addObserver(renderer);
+        boolean raw = System.console() != null && setRawMode(true);
+        try {
+            renderer.render();
+            int c;
+            while ((c = System.in.read()) != -1 && c != QUIT_KEY) {
+                handleKey(board, (char) c);
+            }
+        } finally {
+            renderer.finish();
+            if (raw) {
+                setRawMode(false);
+            }
+        }
+        int moves = board.getNumberOfMoves();
+        System.out.println(moves + " moves, " + renderer.getBytesWritten() + " bytes written"
+                           + (moves > 0 ? ", " + renderer.getBytesWritten() / moves + " bytes per move" : ""));
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ *
+ * Description: TerminalRenderer class that draws a Board in a terminal with
+ *              ANSI escape codes, for machines without a display such as a
+ *              server reached over SSH. As a BoardObserver it redraws after
+ *              every move, undo and redo, but only the cells whose number
+ *              changed since the last frame: the cursor is moved to each of
+ *              them and the cell is written with the colors of TileStyle,
+ *              mapped once to the 256 colors of the terminal, which are only
+ *              sent again when they differ from those of the cell written
+ *              before. The score line is only written when the score or the
+ *              number of moves changed. A move therefore costs a few hundred
+ *              bytes. The escape sequence of every tile and the output buffer
+ *              are built once and reused, so a frame allocates nothing.
+ *
+ */
+
+import java.awt.Color;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+public class TerminalRenderer implements BoardObserver {
+    // number of characters of a cell
+    private static final int CELL_WIDTH = 7;
+    // screen row of the top row of cells, counting from 1
+    private static final int TOP = 3;
+    // screen column of the left column of cells, counting from 1
+    private static final int LEFT = 3;
+    // 256-color background of an empty cell, a light gray
+    private static final int EMPTY_COLOR = 250;
+    // levels of each of red, green and blue in the color cube of a terminal
+    private static final int[] CUBE_LEVELS = {0, 95, 135, 175, 215, 255};
+    // clears the screen and moves the cursor to the top left corner
+    private static final byte[] CLEAR = ascii("\033[2J\033[H");
+    // line at the top of the screen
+    private static final byte[] TITLE =
+        ascii("2048 - w/a/s/d to move, u/r to undo/redo, q to quit");
+    // resets the colors
+    private static final byte[] RESET = ascii("\033[0m");
+    // clears the rest of the line
+    private static final byte[] CLEAR_LINE = ascii("\033[K");
+    private static final byte[] SCORE = ascii("Score: ");
+    private static final byte[] MOVES = ascii("   Moves: ");
+    private static final byte[] WON = ascii("You won! u to undo, q to quit");
+    private static final byte[] LOST = ascii("Game over. u to undo, q to quit");
+    // colors of a cell for every exponent
+    private static final byte[][] STYLES = new byte[TileStyle.MAX_EXPONENT + 1][];
+    // centered label of a cell for every exponent
+    private static final byte[][] LABELS = new byte[TileStyle.MAX_EXPONENT + 1][];
+
+    static {
+        for (int exponent = 0; exponent <= TileStyle.MAX_EXPONENT; exponent++) {
+            int number = exponent == 0 ? 0 : 1 << exponent;
+            String label = TileStyle.labelOf(number);
+            if (label.length() >= CELL_WIDTH) {
+                label = "2^" + exponent;
+            }
+            int left = (CELL_WIDTH - label.length()) / 2;
+            int background = exponent == 0 ? EMPTY_COLOR : colorIndex(TileStyle.colorOf(number));
+            int foreground = colorIndex(TileStyle.textColorOf(number));
+            STYLES[exponent] = ascii("\033[48;5;" + background + ";38;5;" + foreground + "m");
+            LABELS[exponent] = ascii(" ".repeat(left) + label
+                                     + " ".repeat(CELL_WIDTH - left - label.length()));
+        }
+    }
+
+    //the board that is drawn
+    private Board game;
+    //where the frames are written
+    private PrintStream out;
+    //number of cells per column / row
+    private int size;
+    //the number shown in every cell, -1 when the cell must be drawn
+    private int[] shown;
+    //score shown on the score line, -1 when the line must be drawn
+    private int shownScore;
+    //number of moves shown on the score line
+    private int shownMoves;
+    //message shown under the score line: 0 none, 1 won, 2 lost
+    private int shownMessage;
+    //true when the whole screen must be drawn again
+    private boolean full;
+    //the bytes of the frame being built, reused between frames
+    private byte[] buffer;
+    //number of bytes of the frame in buffer
+    private int length;
+    //number of bytes written since the renderer was made
+    private long bytesWritten;
+
+    /* Description: constructor for a renderer that draws the whole board on its
+     *              first frame
+     * Input: the board to draw and the stream of the terminal
+     * Output: none
+     */
+    public TerminalRenderer(Board game, PrintStream out) {
+        this.game = game;
+        this.out = out;
+        size = game.getSize();
+        shown = new int[size * size];
+        buffer = new byte[4096];
+        full = true;
+    }
+
+    /* Description: nothing to draw until the new tile of the move is known
+     * Input: the character key of the move
+     * Output: none
+     */
+    public void boardShifted(char key) {
+    }
+
+    /* Description: draws the cells changed by a move and its new tile
+     * Input: int i, int j identifies the cell of the new tile, and its number
+     * Output: none
+     */
+    public void tileSpawned(int i, int j, int number) {
+        render();
+    }
+
+    /* Description: draws the cells changed by an undo or redo
+     * Input: none
+     * Output: none
+     */
+    public void boardReset() {
+        render();
+    }
+
+    /* Description: makes the next frame draw the whole screen, for example
+     *              after the terminal was cleared by something else
+     * Input: none
+     * Output: none
+     */
+    public void redrawAll() {
+        full = true;
+    }
+
+    /* Description: getter to get the number of bytes written so far
+     * Input: none
+     * Output: the number of bytes
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /* Description: writes every change since the last frame: the cells whose
+     *              number changed, the score line if the score or the number of
+     *              moves changed and the message once the game is won or lost
+     * Input: none
+     * Output: none
+     */
+    public void render() {
+        length = 0;
+        if (full) {
+            append(CLEAR);
+            append(TITLE);
+            for (int cell = 0; cell < shown.length; cell++) {
+                shown[cell] = -1;
+            }
+            shownScore = -1;
+            shownMessage = -1;
+            full = false;
+        }
+        int style = -1;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int number = game.getTile(i, j);
+                if (shown[size * i + j] != number) {
+                    shown[size * i + j] = number;
+                    int exponent = TileStyle.exponentOf(number);
+                    moveTo(TOP + 2 * (size - 1 - i), LEFT + (CELL_WIDTH + 1) * j);
+                    if (style != exponent) {
+                        style = exponent;
+                        append(STYLES[exponent]);
+                    }
+                    append(LABELS[exponent]);
+                }
+            }
+        }
+        if (style != -1) {
+            append(RESET);
+        }
+        int status = TOP + 2 * size;
+        if (shownScore != game.getScore() || shownMoves != game.getNumberOfMoves()) {
+            shownScore = game.getScore();
+            shownMoves = game.getNumberOfMoves();
+            moveTo(status, LEFT);
+            append(SCORE);
+            appendNumber(shownScore);
+            append(MOVES);
+            appendNumber(shownMoves);
+            append(CLEAR_LINE);
+        }
+        int message = game.hasWonGame() ? 1 : game.isGameOver() ? 2 : 0;
+        if (shownMessage != message) {
+            shownMessage = message;
+            moveTo(status + 1, LEFT);
+            if (message != 0) {
+                append(message == 1 ? WON : LOST);
+            }
+            append(CLEAR_LINE);
+        }
+        if (length > 0) {
+            moveTo(status + 2, 1);
+            out.write(buffer, 0, length);
+            out.flush();
+            bytesWritten += length;
+        }
+    }
+
+    /* Description: moves the cursor under the board and resets the colors, so
+     *              that the shell prompt is not drawn over the board
+     * Input: none
+     * Output: none
+     */
+    public void finish() {
+        length = 0;
+        append(RESET);
+        moveTo(TOP + 2 * size + 2, 1);
+        out.write(buffer, 0, length);
+        out.flush();
+    }
+
+    /* Description: adds the escape sequence that moves the cursor to a cell of
+     *              the screen
+     * Input: the row and the column, counting from 1
+     * Output: none
+     */
+    private void moveTo(int row, int column) {
+        appendByte('\033');
+        appendByte('[');
+        appendNumber(row);
+        appendByte(';');
+        appendNumber(column);
+        appendByte('H');
+    }
+
+    /* Description: adds the digits of a number without building a String
+     * Input: the number, at least 0
+     * Output: none
+     */
+    private void appendNumber(long value) {
+        long power = 1;
+        while (power <= value / 10) {
+            power *= 10;
+        }
+        for (; power > 0; power /= 10) {
+            appendByte('0' + (int) (value / power % 10));
+        }
+    }
+
+    /* Description: adds bytes to the frame
+     * Input: the bytes
+     * Output: none
+     */
+    private void append(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    /* Description: adds one byte to the frame
+     * Input: the byte
+     * Output: none
+     */
+    private void appendByte(int b) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) b;
+    }
+
+    /* Description: makes the buffer large enough for more bytes, doubling it
+     *              when it is not
+     * Input: the number of bytes to add
+     * Output: none
+     */
+    private void ensureCapacity(int bytes) {
+        if (length + bytes > buffer.length) {
+            byte[] larger = new byte[Math.max(buffer.length * 2, length + bytes)];
+            System.arraycopy(buffer, 0, larger, 0, length);
+            buffer = larger;
+        }
+    }
+
+    /* Description: returns the closest color of the 6x6x6 color cube of a
+     *              256-color terminal
+     * Input: the color
+     * Output: the index of the terminal color, from 16 to 231
+     */
+    private static int colorIndex(Color color) {
+        return 16 + 36 * closestLevel(color.getRed()) + 6 * closestLevel(color.getGreen())
+            + closestLevel(color.getBlue());
+    }
+
+    /* Description: returns the level of the color cube closest to a component
+     * Input: the red, green or blue component, from 0 to 255
+     * Output: the index of the level, from 0 to 5
+     */
+    private static int closestLevel(int component) {
+        int best = 0;
+        for (int level = 1; level < CUBE_LEVELS.length; level++) {
+            if (Math.abs(CUBE_LEVELS[level] - component) < Math.abs(CUBE_LEVELS[best] - component)) {
+                best = level;
+            }
+        }
+        return best;
+    }
+
+    /* Description: turns a String of ASCII characters into bytes
+     * Input: the String
+     * Output: the bytes
+     */
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -11,25 +11,37 @@ public class Tile implements TileInterface {
     private int x;
     //y-coordinate of tile
     private int y;
-    //fixed dimension of tile
+    //half the width of the tile
+    private double dimension;
+    //size of the tile while it appears, from 0 when hidden to 1 when grown
+    private double scale;
+    //dimension of a tile on a 4x4 board
     public static final int DIMENSION = 50;
+    //size at which an appearing tile is first drawn, as a part of its full size
+    private static final double FIRST_SCALE = 2 / 15.0;
     
-    /* Description: constructor which creates a new tile of either 2 or 4 in value 
-     *              at the specified probability. (Tile 2 > 0.5) (Tile 4 < 0.5)
-     * Input: none
+    /* Description: constructor which creates a tile of a 4x4 board showing the
+     *              given number
+     * Input: the x and y coordinates and the number on the tile
+     * Output: none
+     */
+    public Tile(int x, int y, int number) {
+        this(x, y, number, DIMENSION);
+    }
+    
+    /* Description: constructor which creates a tile of the given dimension
+     *              showing the given number
+     * Input: the x and y coordinates, the number on the tile and half its width
      * Output: none
      */
-    public Tile(int x, int y) {
+    public Tile(int x, int y, int number, double dimension) {
         this.x = x;
         this.y = y;
-        double probability = Math.random();
-        if (probability < 0.5) {
-            number = 4;
-        } else {
-            number = 2;
-        }
+        this.number = number;
+        this.dimension = dimension;
+        scale = 1;
     }
-    
+
     /* Description: getter to get the number of a given tile
      * Input: none
      * Output: the number of the tile
@@ -86,81 +98,70 @@ public class Tile implements TileInterface {
         y += addY;
     }
     
-    /* Description: returns true if the identified tile and the input current tile 
-     *              have the same number
-     * Input: the current tile which we will compare to see if it is able to merge
-     * Output: returns true if the number is the same and false otherwise
-     */
-    public boolean isMergeableWith(Tile current) {
-        return this.number == current.number;
-    }
-    
-    /* Description: doubles the number on the identified tile
-     * Input: current tile to merge with the identified tile
+    /* Description: sets the number on the tile, for example the number of a
+     *              merge
+     * Input: the new number
      * Output: none
      */
-    public void mergeWith(Tile current) {
-        this.number += current.number;
+    public void setNum(int newNumber) {
+        number = newNumber;
     }
     
-    /* Description: sets the color of each tile based on the number of the tile
+    /* Description: sets the color of each tile based on the number of the tile,
+     *              looked up in the TileStyle table
      * Input: none
      * Output: none
      */
     private void setColor() {
-        if (number == 2) {
-            PennDraw.setPenColor(238, 228, 218);
-        } else if (number == 4) {
-            PennDraw.setPenColor(237, 224, 200);
-        } else if (number == 8) {
-            PennDraw.setPenColor(242, 177, 121);
-        } else if (number == 16) {
-            PennDraw.setPenColor(245, 149, 99);
-        } else if (number == 32) {
-            PennDraw.setPenColor(246, 124, 95);
-        } else if (number == 64) {
-            PennDraw.setPenColor(246, 94, 59);
-        } else if (number == 128) {
-            PennDraw.setPenColor(237, 207, 114);
-        } else if (number == 256) {
-            PennDraw.setPenColor(237, 204, 97);
-        } else if (number == 512) {
-            PennDraw.setPenColor(237, 200, 80);
-        } else if (number == 1024) {
-            PennDraw.setPenColor(237, 197, 63);
-        } else if (number == 2048) {
-            PennDraw.setPenColor(237, 194, 46);
-        }
+        PennDraw.setPenColor(TileStyle.colorOf(number));
     }
     
-    /* Description: draws a tile at the specified loaction with a set dimension of 50
+    /* Description: draws a tile at the specified loaction with its dimension
      * Input: none
      * Output: none
      */
     public void draw() {
+        if (scale < 1) {
+            if (scale > 0) {
+                setColor();
+                PennDraw.filledSquare(x, y, (FIRST_SCALE + (1 - FIRST_SCALE) * scale) * dimension);
+            }
+            return;
+        }
         PennDraw.setPenRadius(0.005 / 3);
         setColor();
-        PennDraw.filledSquare(x, y, DIMENSION);
+        PennDraw.filledSquare(x, y, dimension);
         PennDraw.setPenColor(PennDraw.BLACK);
-        PennDraw.square(x, y, DIMENSION);
-        PennDraw.text(x, y, "" + number);
+        PennDraw.square(x, y, dimension);
+        PennDraw.setPenColor(TileStyle.textColorOf(number));
+        PennDraw.text(x, y, TileStyle.labelOf(number));
     }
     
-    /* Description: draws out the background of the tile to make it seem like it 
-     *              would appear
+    /* Description: hides the tile until grow is called, from where it is drawn
+     *              as its background growing to its full size, to make it seem
+     *              like it would appear
      * Input: none
      * Output: none
      */
-    public void drawApparition() {
-        PennDraw.enableAnimation(100);
-        for (int i = 2; i <= 15; i++) {
-            if (PennDraw.hasNextKeyTyped()) {
-                return;
-            }
-            setColor();
-            PennDraw.filledSquare(x, y, i * DIMENSION / 15.0);
-            PennDraw.advance();
-        }
+    public void startApparition() {
+        scale = 0;
+    }
+    
+    /* Description: sets how far an appearing tile has grown
+     * Input: the progress of the apparition, from 0 (hidden) to 1 (grown)
+     * Output: none
+     */
+    public void grow(double progress) {
+        scale = progress;
+    }
+    
+    /* Description: returns true while the tile is appearing
+     * Input: none
+     * Output: true if the tile has not grown to its full size and false
+     *         otherwise
+     */
+    public boolean isAppearing() {
+        return scale < 1;
     }
 }
   
\ No newline at end of file
@@ -48,31 +48,38 @@ public interface TileInterface {
      */
     void plusY(int addY);
     
-    /* Description: returns true if the identified tile and the input current tile 
-     *              have the same number
-     * Input: the current tile which we will compare to see if it is able to merge
-     * Output: returns true if the number is the same and false otherwise
-     */
-    boolean isMergeableWith(Tile current);
-    
-    /* Description: doubles the number on the identified tile
-     * Input: current tile to merge with the identified tile
+    /* Description: sets the number on the tile, for example the number of a
+     *              merge
+     * Input: the new number
      * Output: none
      */
-    void mergeWith(Tile current);
+    void setNum(int newNumber);
     
-     /* Description: draws a tile at the specified loaction with a set dimension 
-      *              of 50
+    /* Description: draws a tile at its location with the dimension it was
+     *              created with, which depends on the size of the board
      * Input: none
      * Output: none
      */
     void draw();
     
-    /* Description: draws out the background of the tile to make it seem like it 
-     *              would appear
+    /* Description: hides the tile until grow is called, from where it is drawn
+     *              growing from a small square to its full size
      * Input: none
      * Output: none
      */
-    void drawApparition();
+    void startApparition();
+    
+    /* Description: sets how far an appearing tile has grown
+     * Input: the progress of the apparition, from 0 (hidden) to 1 (grown)
+     * Output: none
+     */
+    void grow(double progress);
+    
+    /* Description: returns true while the tile is appearing
+     * Input: none
+     * Output: true if the tile has not grown to its full size and false
+     *         otherwise
+     */
+    boolean isAppearing();
     
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+/*
+ *
+ * Description: TileStyle class that holds the color and the label of every tile,
+ *              indexed by the exponent of its number (1 for 2, 2 for 4, ...).
+ *              The Colors and Strings are built once when the class is loaded,
+ *              so drawing a tile never creates new ones. Tiles above 2048 get
+ *              darker colors with white text.
+ *
+ */
+
+import java.awt.Color;
+
+public final class TileStyle {
+    // largest exponent with its own color and label
+    public static final int MAX_EXPONENT = 30;
+    //background color of each tile, indexed by exponent
+    private static final Color[] COLORS = new Color[MAX_EXPONENT + 1];
+    //text color of each tile, indexed by exponent
+    private static final Color[] TEXT_COLORS = new Color[MAX_EXPONENT + 1];
+    //text of each tile, indexed by exponent
+    private static final String[] LABELS = new String[MAX_EXPONENT + 1];
+    //background colors of the tiles from 2 to 131072
+    private static final int[][] PALETTE = {
+        {238, 228, 218}, {237, 224, 200}, {242, 177, 121}, {245, 149, 99},
+        {246, 124, 95}, {246, 94, 59}, {237, 207, 114}, {237, 204, 97},
+        {237, 200, 80}, {237, 197, 63}, {237, 194, 46}, {60, 58, 50},
+        {52, 50, 43}, {44, 42, 36}, {36, 34, 29}, {28, 27, 23}, {20, 19, 16}
+    };
+
+    static {
+        for (int exponent = 0; exponent <= MAX_EXPONENT; exponent++) {
+            int[] rgb = PALETTE[Math.max(0, Math.min(exponent, PALETTE.length) - 1)];
+            COLORS[exponent] = new Color(rgb[0], rgb[1], rgb[2]);
+            TEXT_COLORS[exponent] = exponent > BitBoard.WINNING_EXPONENT ? Color.WHITE : Color.BLACK;
+            LABELS[exponent] = exponent == 0 ? "" : Integer.toString(1 << exponent);
+        }
+    }
+
+    /* Description: private constructor since the class only holds tables
+     * Input: none
+     * Output: none
+     */
+    private TileStyle() {
+    }
+
+    /* Description: returns the exponent of a tile number
+     * Input: the number of the tile, a power of two or 0
+     * Output: the exponent, 0 for an empty cell
+     */
+    public static int exponentOf(int number) {
+        return number == 0 ? 0 : Math.min(Integer.numberOfTrailingZeros(number), MAX_EXPONENT);
+    }
+
+    /* Description: returns the background color of a tile
+     * Input: the number of the tile
+     * Output: the color
+     */
+    public static Color colorOf(int number) {
+        return COLORS[exponentOf(number)];
+    }
+
+    /* Description: returns the text color of a tile
+     * Input: the number of the tile
+     * Output: the color
+     */
+    public static Color textColorOf(int number) {
+        return TEXT_COLORS[exponentOf(number)];
+    }
+
+    /* Description: returns the text shown on a tile
+     * Input: the number of the tile
+     * Output: the label, the same String object every time
+     */
+    public static String labelOf(int number) {
+        return LABELS[exponentOf(number)];
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ *
+ * Description: Where many headless games are played by one policy on every core
+ *              to compare players and engine versions. The games are handed out
+ *              to the threads in chunks, every thread adds its games to its own
+ *              TournamentStats, and the stats are merged and printed at the end.
+ *              Game g is decided by the seed and g only, so a tournament gives
+ *              the same results on any number of threads.
+ *              Usage: java TournamentRunner [random|greedy|search|ntuple:weightFile]
+ *                                           [numberOfGames] [seed] [threads]
+ *
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TournamentRunner {
+    // number of games played when none is given
+    private static final long DEFAULT_GAMES = 1000000;
+    // number of games a thread takes at a time
+    private static final int CHUNK = 256;
+    // start of the name of an n-tuple policy, followed by its weight file
+    private static final String NTUPLE_PREFIX = "ntuple:";
+
+    /* Description: creates a new policy from its name
+     * Input: the name of the policy, random, greedy, search or ntuple: followed
+     *        by the path of the weights saved by the NTupleTrainer
+     * Output: the policy
+     */
+    public static Policy newPolicy(String name) {
+        if (name.equals("random")) {
+            return new RandomPolicy();
+        } else if (name.equals("greedy")) {
+            return new GreedyPolicy();
+        } else if (name.equals("search")) {
+            return new SearchPolicy();
+        } else if (name.startsWith(NTUPLE_PREFIX)) {
+            try {
+                Path weights = Paths.get(name.substring(NTUPLE_PREFIX.length()));
+                return new NTupleAgent(NTupleNetwork.load(weights));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        throw new IllegalArgumentException("unknown policy: " + name);
+    }
+
+    /* Description: plays one game with a policy until it is over, starting the
+     *              policy on a new game first
+     * Input: the policy and the source of the new tiles and of the policy
+     * Output: the board at the end of the game
+     */
+    public static BitBoard playGame(Policy policy, RandomSource random) {
+        policy.newGame();
+        BitBoard board = new BitBoard(random.split());
+        while (!board.isGameOver()) {
+            char key = policy.chooseMove(board, random);
+            if (key == 0) {
+                break;
+            }
+            board.shift(key);
+        }
+        return board;
+    }
+
+    /* Description: returns the seed of one game of a tournament, mixing the bits
+     *              so that neighbouring games get unrelated seeds
+     * Input: the seed of the tournament and the index of the game
+     * Output: the seed of the game
+     */
+    static long gameSeed(long seed, long game) {
+        long z = seed + (game + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /*
+     * Description: Worker class that plays the games of one thread, taking the
+     *              next chunk of games until none are left
+     */
+    private static class Worker implements Runnable {
+        //the policy of this thread
+        private Policy policy;
+        //the seed of the tournament
+        private long seed;
+        //number of games of the tournament
+        private long games;
+        //index of the next game that no thread has taken
+        private AtomicLong nextGame;
+        //the results of the games of this thread
+        private TournamentStats stats;
+
+        /* Description: constructor which creates a worker
+         * Input: the policy of the thread, the seed and the number of games of
+         *        the tournament and the index of the next game to take
+         * Output: none
+         */
+        Worker(Policy policy, long seed, long games, AtomicLong nextGame) {
+            this.policy = policy;
+            this.seed = seed;
+            this.games = games;
+            this.nextGame = nextGame;
+            stats = new TournamentStats();
+        }
+
+        /* Description: plays chunks of games until all games are taken
+         * Input: none
+         * Output: none
+         */
+        public void run() {
+            long first;
+            while ((first = nextGame.getAndAdd(CHUNK)) < games) {
+                long last = Math.min(first + CHUNK, games);
+                for (long g = first; g < last; g++) {
+                    stats.add(playGame(policy, new SplittableRandomSource(gameSeed(seed, g))));
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String policy = args.length > 0 ? args[0] : "random";
+        long games = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_GAMES;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : new SplittableRandomSource().getSeed();
+        int threads = args.length > 3 ? Integer.parseInt(args[3])
+            : Runtime.getRuntime().availableProcessors();
+        Policy first = newPolicy(policy);
+
+        AtomicLong nextGame = new AtomicLong();
+        Worker[] workers = new Worker[threads];
+        Thread[] running = new Thread[threads];
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Worker(t == 0 ? first : newPolicy(policy), seed, games, nextGame);
+            running[t] = new Thread(workers[t], "tournament-" + t);
+            running[t].start();
+        }
+        TournamentStats total = new TournamentStats();
+        for (int t = 0; t < threads; t++) {
+            running[t].join();
+            total.merge(workers[t].stats);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Policy: " + policy + ", seed: " + seed + ", threads: " + threads);
+        System.out.printf("Games: %d, won: %d (%.2f%%)%n", total.getGames(), total.getWins(),
+                          100.0 * total.getWins() / Math.max(1, total.getGames()));
+        System.out.println("Largest tile:");
+        for (int e = 1; e <= BitBoard.CELL_MASK; e++) {
+            if (total.getMaxTileCount(e) > 0) {
+                System.out.printf("  %6d: %d (%.2f%%)%n", 1 << e, total.getMaxTileCount(e),
+                                  100.0 * total.getMaxTileCount(e) / total.getGames());
+            }
+        }
+        System.out.println("Moves per game: p50 " + total.getMovesPercentile(0.5)
+                           + ", p90 " + total.getMovesPercentile(0.9)
+                           + ", p99 " + total.getMovesPercentile(0.99)
+                           + ", max " + total.getMovesPercentile(1));
+        System.out.printf("Throughput: %.0f games/s, %.0f moves/s in %.1f s%n",
+                          total.getGames() / seconds, total.getMoves() / seconds, seconds);
+    }
+}
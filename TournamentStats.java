@@ -0,0 +1,113 @@
+/*
+ *
+ * Description: TournamentStats class that adds up the results of finished games:
+ *              how many were won, how often each largest tile was reached and
+ *              how many moves the games took. Each thread of a tournament keeps
+ *              its own stats, which are merged once all games are played, so
+ *              the threads never write to shared memory while they play.
+ *
+ */
+
+public class TournamentStats {
+    // games with more moves than this are counted as having this many
+    public static final int MAX_TRACKED_MOVES = 1 << 17;
+
+    //number of games added
+    private long games;
+    //number of games that reached the 2048 tile
+    private long wins;
+    //total number of moves of the games
+    private long moves;
+    //number of games whose largest tile had each exponent
+    private long[] maxTiles;
+    //number of games that took each number of moves
+    private long[] movesPerGame;
+
+    /* Description: Default constructor for empty stats
+     * Input: none
+     * Output: none
+     */
+    public TournamentStats() {
+        maxTiles = new long[BitBoard.CELL_MASK + 1];
+        movesPerGame = new long[MAX_TRACKED_MOVES + 1];
+    }
+
+    /* Description: adds a finished game
+     * Input: the board at the end of the game
+     * Output: none
+     */
+    public void add(BitBoard board) {
+        games++;
+        if (board.hasWonGame()) {
+            wins++;
+        }
+        moves += board.getNumberOfMoves();
+        maxTiles[BitBoard.maxExponent(board.getState())]++;
+        movesPerGame[Math.min(board.getNumberOfMoves(), MAX_TRACKED_MOVES)]++;
+    }
+
+    /* Description: adds the games of other stats to these
+     * Input: the other stats, which are not changed
+     * Output: none
+     */
+    public void merge(TournamentStats other) {
+        games += other.games;
+        wins += other.wins;
+        moves += other.moves;
+        for (int e = 0; e < maxTiles.length; e++) {
+            maxTiles[e] += other.maxTiles[e];
+        }
+        for (int m = 0; m < movesPerGame.length; m++) {
+            movesPerGame[m] += other.movesPerGame[m];
+        }
+    }
+
+    /* Description: getter to get the number of games
+     * Input: none
+     * Output: the number of games added
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /* Description: getter to get the number of won games
+     * Input: none
+     * Output: the number of games that reached the 2048 tile
+     */
+    public long getWins() {
+        return wins;
+    }
+
+    /* Description: getter to get the total number of moves
+     * Input: none
+     * Output: the number of moves of all games
+     */
+    public long getMoves() {
+        return moves;
+    }
+
+    /* Description: returns how many games ended with the given largest tile
+     * Input: the exponent of the largest tile
+     * Output: the number of games
+     */
+    public long getMaxTileCount(int exponent) {
+        return maxTiles[exponent];
+    }
+
+    /* Description: returns the number of moves that the given fraction of the
+     *              games took at most, for example 0.5 for the median
+     * Input: the fraction, from 0 to 1
+     * Output: the number of moves, 0 if there are no games
+     */
+    public int getMovesPercentile(double fraction) {
+        long rank = Math.max(1, (long) Math.ceil(fraction * games));
+        long seen = 0;
+        for (int m = 0; m < movesPerGame.length; m++) {
+            seen += movesPerGame[m];
+            if (seen >= rank) {
+                return m;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ *
+ * Description: TranspositionTable class that remembers the expected value of
+ *              positions already searched by the ExpectimaxSearcher, keyed by the
+ *              packed grid of a BitBoard. The table has a fixed number of slots
+ *              chosen at construction, so its memory is bounded: a new entry
+ *              evicts whatever position was in its slot.
+ *
+ */
+
+import java.util.Arrays;
+
+public class TranspositionTable {
+    //the packed grid stored in each slot
+    private long[] keys;
+    //the expected value stored in each slot
+    private float[] values;
+    //depth of the search stored in each slot plus one, 0 if the slot is empty
+    private byte[] depths;
+    //number of slots minus one, used to turn a hash into a slot
+    private int mask;
+
+    /* Description: constructor which creates an empty table
+     * Input: the number of slots as a power of two, for example 20 for about a
+     *        million slots (13 bytes each)
+     * Output: none
+     */
+    public TranspositionTable(int log2Slots) {
+        if (log2Slots < 1 || log2Slots > 30) {
+            throw new IllegalArgumentException("log2Slots must be between 1 and 30");
+        }
+        keys = new long[1 << log2Slots];
+        values = new float[1 << log2Slots];
+        depths = new byte[1 << log2Slots];
+        mask = (1 << log2Slots) - 1;
+    }
+
+    /* Description: returns the value stored for a position searched at least as
+     *              deep as asked
+     * Input: the packed grid and the depth the caller would search it to
+     * Output: the stored expected value, or NaN if there is none
+     */
+    public float get(long board, int depth) {
+        int slot = slotOf(board);
+        if (depths[slot] > depth && keys[slot] == board) {
+            return values[slot];
+        }
+        return Float.NaN;
+    }
+
+    /* Description: stores the value of a position, evicting the entry in its slot
+     *              unless it is the same position already searched deeper
+     * Input: the packed grid, the depth it was searched to and its value
+     * Output: none
+     */
+    public void put(long board, int depth, float value) {
+        int slot = slotOf(board);
+        if (keys[slot] == board && depths[slot] > depth + 1) {
+            return;
+        }
+        keys[slot] = board;
+        values[slot] = value;
+        depths[slot] = (byte) (depth + 1);
+    }
+
+    /* Description: empties every slot
+     * Input: none
+     * Output: none
+     */
+    public void clear() {
+        Arrays.fill(depths, (byte) 0);
+    }
+
+    /* Description: spreads the bits of a packed grid to pick its slot
+     * Input: the packed grid
+     * Output: the index of the slot
+     */
+    private int slotOf(long board) {
+        long hash = board * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+}
@@ -1,15 +1,51 @@
 /*
  * 
  * Description: Where the 2048 game is simulated. The user presses one of the 4 keys
- *              to describe the direction in which the tile should move.
+ *              to describe the direction in which the tile should move, or 'p'
+ *              to let the computer play until 'p' is pressed again.
+ *              'u' takes back the last move and 'r' plays it again, also after
+ *              the game is over. On a 4x4 board a HintService searches every
+ *              position in the background while the player thinks: 'h' shows
+ *              the best move found so far and 'm' plays it, both at once.
+ *              Every pass of the loop handles all keys typed since the last
+ *              one, so the game state never lags behind the keyboard; the
+ *              animations of those moves are drawn as one.
+ *              A frame is only drawn when the board changed, a tile is moving
+ *              or the game just ended; otherwise the loop sleeps between
+ *              looks at the keyboard. The computer player only plays 4x4
+ *              boards.
+ *              Usage: java TwentyFourtyEight [size]
  */
 
 public class TwentyFourtyEight {
-    private static Board board = new Board();
-    // set frame value at 100
+    private static Board board;
+    // draws the board and animates its moves
+    private static BoardRenderer renderer;
+    // most frames drawn per second, set once; animations take the same time at
+    // any frame rate
     private static final int FRAMES = 100;
     // determines if the game is over or not
     private static boolean isOver = false;
+    // key that turns the computer player on and off
+    private static final char AUTOPLAY_KEY = 'p';
+    // key that takes back the last move
+    private static final char UNDO_KEY = 'u';
+    // key that plays the last undone move again
+    private static final char REDO_KEY = 'r';
+    // key that shows the best move found so far
+    private static final char HINT_KEY = 'h';
+    // key that plays the best move found so far
+    private static final char AUTO_MOVE_KEY = 'm';
+    // time the computer player lets the hints think about one move, in nanoseconds
+    private static final long MOVE_BUDGET = 50000000L;
+    // searches every position in the background, null if the board is not 4x4
+    private static HintService hints;
+    // determines if the computer player is on or not
+    private static boolean isAutoplay = false;
+    // time to wait for a key while nothing changes, in milliseconds
+    private static final long IDLE_WAIT = 15;
+    // number of frames shown so far
+    private static long frameCount = 0;
     
     /* Description: erases and draws the background
      * Input: none
@@ -25,32 +61,138 @@ public class TwentyFourtyEight {
         PennDraw.setPenColor(PennDraw.WHITE);
     }
     
+    /* Description: shows the frame drawn since the last call and counts it
+     * Input: none
+     * Output: none
+     */
+    public static void advance() {
+        PennDraw.advance();
+        frameCount++;
+    }
+    
+    /* Description: getter to get the number of frames shown so far, which stays
+     *              the same while the board is idle
+     * Input: none
+     * Output: the number of frames
+     */
+    public static long getFrameCount() {
+        return frameCount;
+    }
+    
+    /* Description: draws the board, the dashboard and, once the game is over, 
+     *              the win or loss screen
+     * Input: none
+     * Output: none
+     */
+    private static void drawFrame() {
+        background();
+        renderer.draw();
+        renderer.drawDashboard();
+        if (board.hasWonGame()) {
+            renderer.winDashboard();
+        }
+        if (board.isGameOver()) {
+            renderer.lostDashboard();
+        }
+        advance();
+    }
+    
+    /* Description: waits a little for the next key without drawing, so that an
+     *              idle board uses almost no CPU
+     * Input: none
+     * Output: none
+     */
+    private static void waitForInput() {
+        try {
+            Thread.sleep(IDLE_WAIT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /* Description: marks the game as over once it is won or no key can move
+     *              the board
+     * Input: none
+     * Output: true if the game just ended and false otherwise
+     */
+    private static boolean checkOver() {
+        if (!isOver && (board.hasWonGame() || board.isGameOver())) {
+            isOver = true;
+            return true;
+        }
+        return false;
+    }
+    
+    /* Description: handles one typed key. A move changes the board at once; the
+     *              renderer animates it in the following frames. Moves typed
+     *              after the game is over are ignored.
+     * Input: the character of the key
+     * Output: none
+     */
+    private static void handleKey(char c) {
+        checkOver();
+        if (c == UNDO_KEY || c == REDO_KEY) {
+            if (c == UNDO_KEY ? board.undo() : board.redo()) {
+                isOver = false;
+                isAutoplay = false;
+            }
+        } else if (isOver) {
+            return;
+        } else if (c == AUTOPLAY_KEY && hints != null) {
+            isAutoplay = !isAutoplay;
+        } else if (c == HINT_KEY && hints != null) {
+            SearchResult hint = hints.getHint();
+            renderer.setHint(hint == null ? 0 : hint.getDirection());
+        } else if (c == AUTO_MOVE_KEY && hints != null) {
+            SearchResult hint = hints.getHint();
+            if (hint != null) {
+                board.shift(hint.getDirection());
+            }
+        } else {
+            board.shift(c);
+        }
+    }
+    
    public static void main(String[] args) {
        PennDraw.setCanvasSize(550, 650);
        PennDraw.setXscale(-25, 525);
        PennDraw.setYscale(-25, 625);
        PennDraw.enableAnimation(FRAMES);
+       int size = args.length > 0 ? Integer.parseInt(args[0]) : Board.DEFAULT_SIZE;
+       board = new Board(size, new SplittableRandomSource());
+       renderer = new BoardRenderer(board);
+       board.addObserver(renderer);
+       if (board.isPacked()) {
+           board.enableHistory(BoardHistory.DEFAULT_CAPACITY);
+           hints = new HintService(board);
+           board.addObserver(hints);
+       }
+       boolean needsRedraw = true;
        
        while (true) {
-            background();
-            board.draw();
-            board.drawDashboard();
+           while (PennDraw.hasNextKeyTyped()) {
+                handleKey(PennDraw.nextKeyTyped());
+           }
            
-           if (board.hasWonGame()) {
-                board.winDashboard();
-                isOver = true;
+           if (isAutoplay && !isOver) {
+                SearchResult hint = hints.getHint();
+                if (hint != null
+                    && (hints.isFinished() || hints.getThinkingTime() >= MOVE_BUDGET)) {
+                    board.shift(hint.getDirection());
+                }
            }
            
-           if (board.isGameOver()) {
-                board.lostDashboard();
-                isOver = true;
+           if (checkOver()) {
+                needsRedraw = true;
            }
            
-           if (PennDraw.hasNextKeyTyped() && !isOver) {
-                char c = PennDraw.nextKeyTyped();
-                board.shift(c);
+           if (needsRedraw || renderer.needsRedraw()) {
+                renderer.animate(System.nanoTime());
+                drawFrame();
+                needsRedraw = false;
+           } else {
+                waitForInput();
            }
-           PennDraw.advance();
        }
    }
 }
\ No newline at end of file
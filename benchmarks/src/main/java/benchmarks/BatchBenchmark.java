@@ -0,0 +1,84 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ *
+ * Description: BatchBenchmark class that measures how many board moves per
+ *              second GAMES games make when they are stepped together by a
+ *              BatchBoard and when every game is its own BitBoard shifted one
+ *              at a time. In both cases game g plays key (turn + g) of "wasd"
+ *              on every turn and is started again when it is over.
+ *
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBenchmark {
+    private static final String KEYS = "wasd";
+    private static final int GAMES = 4096;
+
+    private Object random;
+    private Object batch;
+    private Object[] boards;
+    private char[] keys;
+    private int turn;
+
+    @Setup
+    public void setUp() {
+        random = Engine.newRandom(42L);
+        batch = Engine.newBatchBoard(GAMES, Engine.split(random));
+        boards = new Object[GAMES];
+        for (int g = 0; g < GAMES; g++) {
+            boards[g] = Engine.newBitBoard(Engine.split(random));
+        }
+        keys = new char[GAMES];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public int batchStep() {
+        turn++;
+        for (int g = 0; g < GAMES; g++) {
+            keys[g] = KEYS.charAt((turn + g) & 3);
+        }
+        int moved = Engine.batchStep(batch, keys);
+        for (int g = 0; g < GAMES; g++) {
+            if (Engine.batchIsGameOver(batch, g)) {
+                Engine.batchRestart(batch, g);
+            }
+        }
+        return moved;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public int singleShift() {
+        turn++;
+        int over = 0;
+        for (int g = 0; g < GAMES; g++) {
+            Engine.shift(boards[g], KEYS.charAt((turn + g) & 3));
+            if (Engine.isGameOver(boards[g])) {
+                boards[g] = Engine.newBitBoard(Engine.split(random));
+                over++;
+            }
+        }
+        return over;
+    }
+}
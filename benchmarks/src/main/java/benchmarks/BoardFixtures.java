@@ -0,0 +1,66 @@
+package benchmarks;
+
+/*
+ *
+ * Description: BoardFixtures class that holds the packed grids the benchmarks
+ *              start from: an early game with a few small tiles, a mid game
+ *              with half the cells taken and a late game with one empty cell.
+ *              Rows are listed from row 0 (the bottom of the window) upwards.
+ *
+ */
+
+final class BoardFixtures {
+    static final long EARLY = pack(new int[][] {
+        {2, 0, 0, 0},
+        {0, 0, 0, 0},
+        {0, 4, 0, 0},
+        {0, 0, 0, 2}
+    });
+    static final long MID = pack(new int[][] {
+        {2, 4, 8, 16},
+        {0, 2, 32, 4},
+        {0, 0, 4, 2},
+        {0, 0, 0, 2}
+    });
+    static final long LATE = pack(new int[][] {
+        {2, 4, 8, 16},
+        {4, 8, 16, 32},
+        {8, 64, 128, 256},
+        {2, 1024, 2, 0}
+    });
+
+    private BoardFixtures() {
+    }
+
+    /* Description: returns the fixture with the given name
+     * Input: "early", "mid" or "late"
+     * Output: the packed grid
+     */
+    static long named(String stage) {
+        switch (stage) {
+            case "early":
+                return EARLY;
+            case "mid":
+                return MID;
+            case "late":
+                return LATE;
+            default:
+                throw new IllegalArgumentException("Unknown stage: " + stage);
+        }
+    }
+
+    /* Description: packs a grid of tile numbers into 4 bits per cell
+     * Input: the numbers of the tiles, 0 for an empty cell
+     * Output: the packed grid of tile exponents
+     */
+    static long pack(int[][] numbers) {
+        long board = 0L;
+        for (int i = 0; i < numbers.length; i++) {
+            for (int j = 0; j < numbers[i].length; j++) {
+                long exponent = numbers[i][j] == 0 ? 0 : Integer.numberOfTrailingZeros(numbers[i][j]);
+                board |= exponent << (4 * (numbers.length * i + j));
+            }
+        }
+        return board;
+    }
+}
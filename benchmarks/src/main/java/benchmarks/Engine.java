@@ -0,0 +1,358 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/*
+ *
+ * Description: Engine class that lets the benchmarks call the game classes. The
+ *              game lives in the default package, which code in a named package
+ *              cannot import, while JMH only accepts benchmarks in a named
+ *              package. Each method is looked up once into a static final
+ *              MethodHandle with its class types erased to Object, which the JIT
+ *              inlines like a direct call.
+ *
+ */
+
+final class Engine {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+    private static final MethodHandle NEW_RANDOM =
+        constructor("SplittableRandomSource", long.class);
+    private static final MethodHandle SPLIT =
+        virtual("RandomSource", "split", "RandomSource");
+    private static final MethodHandle NEW_BIT_BOARD =
+        constructor("BitBoard", long.class, "RandomSource");
+    private static final MethodHandle NEW_RANDOM_BIT_BOARD =
+        constructor("BitBoard", "RandomSource");
+    private static final MethodHandle NEW_BATCH_BOARD =
+        constructor("BatchBoard", int.class, "RandomSource");
+    private static final MethodHandle NEW_BOARD =
+        constructor("Board", "RandomSource");
+    private static final MethodHandle NEW_GRID_BOARD =
+        constructor("GridBoard", int.class, "RandomSource");
+    private static final MethodHandle GET_GRID_STATE =
+        virtual("GridBoard", "getState", byte[].class);
+    private static final MethodHandle SET_GRID_STATE =
+        virtual("GridBoard", "setState", void.class, byte[].class);
+    private static final MethodHandle SET_STATE =
+        virtual("BitBoard", "setState", void.class, long.class);
+    private static final MethodHandle SHIFT =
+        virtual("BoardInterface", "shift", void.class, char.class);
+    private static final MethodHandle IS_KEY_PERMITTED =
+        virtual("BitBoard", "isKeyPermitted", boolean.class, char.class);
+    private static final MethodHandle LEGAL_MOVES =
+        staticMethod("BitBoard", "legalMoves", int.class, long.class);
+    private static final MethodHandle BATCH_STEP =
+        virtual("BatchBoard", "step", int.class, char[].class);
+    private static final MethodHandle BATCH_IS_GAME_OVER =
+        virtual("BatchBoard", "isGameOver", boolean.class, int.class);
+    private static final MethodHandle BATCH_RESTART =
+        virtual("BatchBoard", "restart", void.class, int.class);
+    private static final MethodHandle IS_GAME_OVER =
+        virtual("BoardInterface", "isGameOver", boolean.class);
+    private static final MethodHandle HAS_WON_GAME =
+        virtual("BoardInterface", "hasWonGame", boolean.class);
+    private static final MethodHandle NEW_TILE =
+        virtual("BitBoard", "newTile", int.class);
+    private static final MethodHandle GET_NUMBER_OF_MOVES =
+        virtual("Board", "getNumberOfMoves", int.class);
+    private static final MethodHandle MOVE =
+        staticMethod("BitBoard", "move", long.class, long.class, char.class);
+    private static final MethodHandle TRANSPOSE =
+        staticMethod("Symmetry", "transpose", long.class, long.class);
+    private static final MethodHandle FLIP_ROWS =
+        staticMethod("Symmetry", "flipRows", long.class, long.class);
+    private static final MethodHandle FLIP_COLUMNS =
+        staticMethod("Symmetry", "flipColumns", long.class, long.class);
+    private static final MethodHandle ROTATE =
+        staticMethod("Symmetry", "rotate", long.class, long.class);
+    private static final MethodHandle CANONICAL =
+        staticMethod("Symmetry", "canonical", long.class, long.class);
+    private static final MethodHandle CANONICAL_SYMMETRY =
+        staticMethod("Symmetry", "canonicalSymmetry", int.class, long.class);
+    private static final MethodHandle PLAY_RANDOM_GAME =
+        staticMethod("HeadlessRunner", "playRandomGame", void.class, "Board", "RandomSource");
+
+    private Engine() {
+    }
+
+    static Object newRandom(long seed) {
+        try {
+            return (Object) NEW_RANDOM.invokeExact(seed);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object split(Object random) {
+        try {
+            return (Object) SPLIT.invokeExact(random);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object newBitBoard(long state, Object random) {
+        try {
+            return (Object) NEW_BIT_BOARD.invokeExact(state, random);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object newBitBoard(Object random) {
+        try {
+            return (Object) NEW_RANDOM_BIT_BOARD.invokeExact(random);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object newBatchBoard(int games, Object random) {
+        try {
+            return (Object) NEW_BATCH_BOARD.invokeExact(games, random);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int batchStep(Object batchBoard, char[] keys) {
+        try {
+            return (int) BATCH_STEP.invokeExact(batchBoard, (Object) keys);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean batchIsGameOver(Object batchBoard, int game) {
+        try {
+            return (boolean) BATCH_IS_GAME_OVER.invokeExact(batchBoard, game);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void batchRestart(Object batchBoard, int game) {
+        try {
+            BATCH_RESTART.invokeExact(batchBoard, game);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object newBoard(Object random) {
+        try {
+            return (Object) NEW_BOARD.invokeExact(random);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object newGridBoard(int size, Object random) {
+        try {
+            return (Object) NEW_GRID_BOARD.invokeExact(size, random);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static byte[] getGridState(Object gridBoard) {
+        try {
+            return (byte[]) (Object) GET_GRID_STATE.invokeExact(gridBoard);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void setGridState(Object gridBoard, byte[] state) {
+        try {
+            SET_GRID_STATE.invokeExact(gridBoard, (Object) state);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void setState(Object bitBoard, long state) {
+        try {
+            SET_STATE.invokeExact(bitBoard, state);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void shift(Object board, char key) {
+        try {
+            SHIFT.invokeExact(board, key);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean isKeyPermitted(Object bitBoard, char key) {
+        try {
+            return (boolean) IS_KEY_PERMITTED.invokeExact(bitBoard, key);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int legalMoves(long board) {
+        try {
+            return (int) LEGAL_MOVES.invokeExact(board);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean isGameOver(Object board) {
+        try {
+            return (boolean) IS_GAME_OVER.invokeExact(board);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean hasWonGame(Object board) {
+        try {
+            return (boolean) HAS_WON_GAME.invokeExact(board);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int newTile(Object bitBoard) {
+        try {
+            return (int) NEW_TILE.invokeExact(bitBoard);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int getNumberOfMoves(Object board) {
+        try {
+            return (int) GET_NUMBER_OF_MOVES.invokeExact(board);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static long move(long state, char key) {
+        try {
+            return (long) MOVE.invokeExact(state, key);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static long transpose(long state) {
+        try {
+            return (long) TRANSPOSE.invokeExact(state);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static long flipRows(long state) {
+        try {
+            return (long) FLIP_ROWS.invokeExact(state);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static long flipColumns(long state) {
+        try {
+            return (long) FLIP_COLUMNS.invokeExact(state);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static long rotate(long state) {
+        try {
+            return (long) ROTATE.invokeExact(state);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static long canonical(long state) {
+        try {
+            return (long) CANONICAL.invokeExact(state);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int canonicalSymmetry(long state) {
+        try {
+            return (int) CANONICAL_SYMMETRY.invokeExact(state);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void playRandomGame(Object board, Object random) {
+        try {
+            PLAY_RANDOM_GAME.invokeExact(board, random);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static MethodHandle constructor(String owner, Object... params) {
+        try {
+            MethodType type = MethodType.methodType(void.class, types(params));
+            return erase(LOOKUP.findConstructor(Class.forName(owner), type));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle virtual(String owner, String name, Object returnType,
+                                        Object... params) {
+        try {
+            MethodType type = MethodType.methodType(type(returnType), types(params));
+            return erase(LOOKUP.findVirtual(Class.forName(owner), name, type));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle staticMethod(String owner, String name, Object returnType,
+                                             Object... params) {
+        try {
+            MethodType type = MethodType.methodType(type(returnType), types(params));
+            return erase(LOOKUP.findStatic(Class.forName(owner), name, type));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle erase(MethodHandle handle) {
+        return handle.asType(handle.type().erase());
+    }
+
+    private static Class<?>[] types(Object[] params) throws ClassNotFoundException {
+        Class<?>[] types = new Class<?>[params.length];
+        for (int i = 0; i < params.length; i++) {
+            types[i] = type(params[i]);
+        }
+        return types;
+    }
+
+    private static Class<?> type(Object param) throws ClassNotFoundException {
+        return param instanceof String ? Class.forName((String) param) : (Class<?>) param;
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        throw new IllegalStateException(t);
+    }
+}
@@ -0,0 +1,44 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ *
+ * Description: GameBenchmark class that measures how many whole random games a
+ *              headless Board plays per second, from the first two tiles until
+ *              no key can move the board anymore.
+ *
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+    private Object random;
+
+    @Setup
+    public void setUp() {
+        random = Engine.newRandom(42L);
+    }
+
+    @Benchmark
+    public int randomGame() {
+        Object board = Engine.newBoard(Engine.split(random));
+        Engine.playRandomGame(board, random);
+        return Engine.getNumberOfMoves(board);
+    }
+}
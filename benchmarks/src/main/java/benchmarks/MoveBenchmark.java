@@ -0,0 +1,95 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ *
+ * Description: MoveBenchmark class that measures the latency of the single-move
+ *              hot paths of a BitBoard on early, mid and late game fixtures.
+ *              The mutating benchmarks reset the board to the fixture first, so
+ *              every operation sees the same position. Run with -prof gc to see
+ *              the bytes allocated per move.
+ *
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveBenchmark {
+    private static final String KEYS = "wasd";
+
+    @Param({"early", "mid", "late"})
+    public String stage;
+
+    private long fixture;
+    private Object board;
+    private char legalKey;
+
+    @Setup
+    public void setUp() {
+        fixture = BoardFixtures.named(stage);
+        board = Engine.newBitBoard(fixture, Engine.newRandom(42L));
+        for (int k = KEYS.length() - 1; k >= 0; k--) {
+            if (Engine.isKeyPermitted(board, KEYS.charAt(k))) {
+                legalKey = KEYS.charAt(k);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(4)
+    public long move() {
+        return Engine.move(fixture, 'w') ^ Engine.move(fixture, 'a')
+            ^ Engine.move(fixture, 's') ^ Engine.move(fixture, 'd');
+    }
+
+    @Benchmark
+    public void shift() {
+        Engine.setState(board, fixture);
+        Engine.shift(board, legalKey);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(4)
+    public boolean isKeyPermitted() {
+        return Engine.isKeyPermitted(board, 'w') | Engine.isKeyPermitted(board, 'a')
+            | Engine.isKeyPermitted(board, 's') | Engine.isKeyPermitted(board, 'd');
+    }
+
+    @Benchmark
+    public int legalMoves() {
+        return Engine.legalMoves(fixture);
+    }
+
+    @Benchmark
+    public boolean isGameOver() {
+        return Engine.isGameOver(board);
+    }
+
+    @Benchmark
+    public boolean hasWonGame() {
+        return Engine.hasWonGame(board);
+    }
+
+    @Benchmark
+    public int newTile() {
+        Engine.setState(board, fixture);
+        return Engine.newTile(board);
+    }
+}
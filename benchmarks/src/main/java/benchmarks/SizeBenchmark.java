@@ -0,0 +1,59 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ *
+ * Description: SizeBenchmark class that measures the cost of one move of a
+ *              GridBoard from 4x4 up to 16x16. Each operation shifts the board
+ *              with the next of the four keys in turn and goes back to the
+ *              starting position when the game is over, so the board keeps a
+ *              realistic number of tiles. Dividing the time by the number of
+ *              cells shows how the cost grows with the board.
+ *
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SizeBenchmark {
+    private static final String KEYS = "wasd";
+
+    @Param({"4", "5", "6", "8", "12", "16"})
+    public int size;
+
+    private Object board;
+    private byte[] start;
+    private int nextKey;
+
+    @Setup
+    public void setUp() {
+        board = Engine.newGridBoard(size, Engine.newRandom(42L));
+        start = Engine.getGridState(board);
+    }
+
+    @Benchmark
+    public boolean shift() {
+        Engine.shift(board, KEYS.charAt(nextKey++ & 3));
+        if (Engine.isGameOver(board)) {
+            Engine.setGridState(board, start);
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,71 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ *
+ * Description: SymmetryBenchmark class that measures the latency of the board
+ *              symmetries on the early, mid and late game fixtures: each single
+ *              transform, and the canonical form over all 8 symmetries.
+ *
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SymmetryBenchmark {
+    @Param({"early", "mid", "late"})
+    public String stage;
+
+    private long fixture;
+
+    @Setup
+    public void setUp() {
+        fixture = BoardFixtures.named(stage);
+    }
+
+    @Benchmark
+    public long transpose() {
+        return Engine.transpose(fixture);
+    }
+
+    @Benchmark
+    public long flipRows() {
+        return Engine.flipRows(fixture);
+    }
+
+    @Benchmark
+    public long flipColumns() {
+        return Engine.flipColumns(fixture);
+    }
+
+    @Benchmark
+    public long rotate() {
+        return Engine.rotate(fixture);
+    }
+
+    @Benchmark
+    public long canonical() {
+        return Engine.canonical(fixture);
+    }
+
+    @Benchmark
+    public int canonicalSymmetry() {
+        return Engine.canonicalSymmetry(fixture);
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ *
+ * Description: BitBoardTest class that checks the packed BitBoard rules against
+ *              a straightforward reference written on a 4x4 array of exponents,
+ *              in the way the original Tile[][] board played them: 'a' slides
+ *              towards column 0, 'd' towards column 3, 's' towards row 0 and
+ *              'w' towards row 3; two tiles merge at most once per move, two
+ *              32768 tiles never merge, a move that changes nothing is not a
+ *              legal move, and a new tile takes its cell and its number from
+ *              one random draw.
+ *
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+public class BitBoardTest {
+    // number of random boards compared with the reference
+    private static final int BOARDS = 200000;
+    // largest exponent a cell holds
+    private static final int MAX_EXPONENT = BitBoard.CELL_MASK;
+
+    /* Description: builds a packed grid from rows of exponents written with row
+     *              3 first, as the grid is drawn
+     * Input: the 4 rows from the top, each with the exponents of columns 0 to 3
+     * Output: the packed grid
+     */
+    private static long grid(int[]... rows) {
+        long board = 0;
+        for (int r = 0; r < BitBoard.GRID; r++) {
+            int i = BitBoard.GRID - 1 - r;
+            for (int j = 0; j < BitBoard.GRID; j++) {
+                board |= (long) rows[r][j] << (BitBoard.CELL_BITS * (BitBoard.GRID * i + j));
+            }
+        }
+        return board;
+    }
+
+    /* Description: builds a packed grid with one row and the other cells empty
+     * Input: the row i and its exponents of columns 0 to 3
+     * Output: the packed grid
+     */
+    private static long row(int i, int... exponents) {
+        long board = 0;
+        for (int j = 0; j < BitBoard.GRID; j++) {
+            board |= (long) exponents[j] << (BitBoard.CELL_BITS * (BitBoard.GRID * i + j));
+        }
+        return board;
+    }
+
+    /* Description: makes a random grid with about a third of the cells empty and
+     *              a few cells at the largest exponent
+     * Input: the random numbers
+     * Output: the packed grid
+     */
+    private static long randomGrid(SplittableRandom random) {
+        long board = 0;
+        for (int cell = 0; cell < BitBoard.GRID * BitBoard.GRID; cell++) {
+            int draw = random.nextInt(3 * MAX_EXPONENT);
+            int exponent = draw < MAX_EXPONENT ? 0 : random.nextInt(1, MAX_EXPONENT + 1);
+            if (random.nextInt(4) == 0) {
+                exponent = Math.max(exponent, MAX_EXPONENT - random.nextInt(2));
+            }
+            board |= (long) exponent << (BitBoard.CELL_BITS * cell);
+        }
+        return board;
+    }
+
+    /* Description: the reference move, which walks every line of the grid from
+     *              the edge the tiles slide towards
+     * Input: the packed grid, the key and an array whose first element gets the
+     *        score of the move
+     * Output: the moved grid
+     */
+    private static long referenceMove(long board, char key, int[] score) {
+        int[][] cells = new int[BitBoard.GRID][BitBoard.GRID];
+        for (int i = 0; i < BitBoard.GRID; i++) {
+            for (int j = 0; j < BitBoard.GRID; j++) {
+                cells[i][j] = BitBoard.exponentAt(board, BitBoard.GRID * i + j);
+            }
+        }
+        int[][] moved = new int[BitBoard.GRID][BitBoard.GRID];
+        score[0] = 0;
+        for (int line = 0; line < BitBoard.GRID; line++) {
+            int[] result = new int[BitBoard.GRID];
+            int count = 0;
+            boolean mergedLast = false;
+            for (int step = 0; step < BitBoard.GRID; step++) {
+                int exponent = cells[rowOf(key, line, step)][columnOf(key, line, step)];
+                if (exponent == 0) {
+                    continue;
+                }
+                if (count > 0 && !mergedLast && result[count - 1] == exponent
+                    && exponent < MAX_EXPONENT) {
+                    result[count - 1]++;
+                    score[0] += 1 << (exponent + 1);
+                    mergedLast = true;
+                } else {
+                    result[count++] = exponent;
+                    mergedLast = false;
+                }
+            }
+            for (int step = 0; step < BitBoard.GRID; step++) {
+                moved[rowOf(key, line, step)][columnOf(key, line, step)] = result[step];
+            }
+        }
+        long packed = 0;
+        for (int i = 0; i < BitBoard.GRID; i++) {
+            for (int j = 0; j < BitBoard.GRID; j++) {
+                packed |= (long) moved[i][j] << (BitBoard.CELL_BITS * (BitBoard.GRID * i + j));
+            }
+        }
+        return packed;
+    }
+
+    /* Description: returns the row of a cell of a line, counted from the edge
+     *              the tiles slide towards
+     * Input: the key, the line and the step from the edge
+     * Output: the row
+     */
+    private static int rowOf(char key, int line, int step) {
+        if (key == 's') {
+            return step;
+        } else if (key == 'w') {
+            return BitBoard.GRID - 1 - step;
+        }
+        return line;
+    }
+
+    /* Description: returns the column of a cell of a line, counted from the edge
+     *              the tiles slide towards
+     * Input: the key, the line and the step from the edge
+     * Output: the column
+     */
+    private static int columnOf(char key, int line, int step) {
+        if (key == 'a') {
+            return step;
+        } else if (key == 'd') {
+            return BitBoard.GRID - 1 - step;
+        }
+        return line;
+    }
+
+    @Test
+    public void movesMatchTheReferenceOnRandomGrids() {
+        SplittableRandom random = new SplittableRandom(2048);
+        int[] score = new int[1];
+        for (int n = 0; n < BOARDS; n++) {
+            long board = randomGrid(random);
+            int legal = 0;
+            for (int k = 0; k < BitBoard.KEYS.length(); k++) {
+                char key = BitBoard.KEYS.charAt(k);
+                long expected = referenceMove(board, key, score);
+                String name = key + " on " + Long.toHexString(board);
+                assertEquals(expected, BitBoard.move(board, key), "move " + name);
+                assertEquals(score[0], BitBoard.scoreOf(board, key), "score " + name);
+                assertEquals(expected != board, BitBoard.canMove(board, key));
+                if (expected != board) {
+                    legal |= 1 << k;
+                }
+            }
+            assertEquals(legal, BitBoard.legalMoves(board),
+                         "legal moves on " + Long.toHexString(board));
+        }
+    }
+
+    @Test
+    public void keysSlideTowardsTheirEdge() {
+        long board = row(1, 0, 1, 0, 0);
+        assertEquals(row(1, 1, 0, 0, 0), BitBoard.move(board, 'a'));
+        assertEquals(row(1, 0, 0, 0, 1), BitBoard.move(board, 'd'));
+        assertEquals(row(0, 0, 1, 0, 0), BitBoard.move(board, 's'));
+        assertEquals(row(3, 0, 1, 0, 0), BitBoard.move(board, 'w'));
+        assertEquals(board, BitBoard.move(board, 'x'));
+        assertEquals(0, BitBoard.scoreOf(board, 'x'));
+    }
+
+    @Test
+    public void fourEqualTilesMergeIntoTwo() {
+        long board = row(0, 1, 1, 1, 1);
+        assertEquals(row(0, 2, 2, 0, 0), BitBoard.move(board, 'a'));
+        assertEquals(row(0, 0, 0, 2, 2), BitBoard.move(board, 'd'));
+        assertEquals(8, BitBoard.scoreOf(board, 'a'));
+        assertEquals(8, BitBoard.scoreOf(board, 'd'));
+    }
+
+    @Test
+    public void mergedTilesDoNotMergeAgain() {
+        long board = row(2, 2, 2, 3, 3);
+        assertEquals(row(2, 3, 4, 0, 0), BitBoard.move(board, 'a'));
+        assertEquals(row(2, 0, 0, 3, 4), BitBoard.move(board, 'd'));
+        assertEquals(24, BitBoard.scoreOf(board, 'a'));
+        assertEquals(row(1, 2, 2, 0, 0), BitBoard.move(row(1, 1, 1, 2, 0), 'a'));
+    }
+
+    @Test
+    public void largestTilesNeverMerge() {
+        long board = row(0, 15, 15, 14, 14);
+        assertEquals(row(0, 15, 15, 15, 0), BitBoard.move(board, 'a'));
+        assertEquals(1 << 15, BitBoard.scoreOf(board, 'a'));
+        long stuck = row(0, 15, 15, 0, 0);
+        assertEquals(stuck, BitBoard.move(stuck, 'a'));
+        assertEquals(0, BitBoard.scoreOf(stuck, 'a'));
+        assertEquals(BitBoard.keyBit('d') | BitBoard.keyBit('w'), BitBoard.legalMoves(stuck));
+    }
+
+    @Test
+    public void fullBoardWithoutPairsHasNoMoves() {
+        long board = grid(new int[] {1, 2, 1, 2},
+                          new int[] {2, 1, 2, 1},
+                          new int[] {1, 2, 1, 2},
+                          new int[] {2, 1, 2, 1});
+        assertEquals(0, BitBoard.legalMoves(board));
+        BitBoard bitBoard = new BitBoard(board);
+        assertTrue(bitBoard.isGameOver());
+        assertFalse(bitBoard.motionOfKey('a'));
+        assertEquals(-1, bitBoard.newTile());
+        long pair = grid(new int[] {3, 3, 1, 2},
+                         new int[] {2, 1, 2, 1},
+                         new int[] {1, 2, 1, 2},
+                         new int[] {2, 1, 2, 1});
+        assertEquals(0, BitBoard.emptyMask(pair));
+        assertEquals(BitBoard.keyBit('a') | BitBoard.keyBit('d'), BitBoard.legalMoves(pair));
+    }
+
+    @Test
+    public void motionOfKeyReportsWhetherTheBoardChanged() {
+        BitBoard board = new BitBoard(row(0, 1, 1, 0, 0));
+        assertFalse(board.motionOfKey('s'));
+        assertEquals(0, board.getScore());
+        assertTrue(board.motionOfKey('d'));
+        assertEquals(row(0, 0, 0, 0, 2), board.getState());
+        assertEquals(4, board.getScore());
+    }
+
+    @Test
+    public void newTileTakesCellAndNumberFromOneDraw() {
+        SplittableRandom grids = new SplittableRandom(4);
+        for (int n = 0; n < 10000; n++) {
+            long start = randomGrid(grids);
+            int empty = BitBoard.emptyMask(start);
+            if (empty == 0) {
+                continue;
+            }
+            BitBoard board = new BitBoard(start, new SplittableRandomSource(n));
+            RandomSource reference = new SplittableRandomSource(n);
+            int draw = reference.nextInt(Integer.bitCount(empty) * 2);
+            int cell = -1;
+            for (int c = 0, seen = -1; seen < draw >> 1; c++) {
+                if ((empty & (1 << c)) != 0) {
+                    seen++;
+                    cell = c;
+                }
+            }
+            int exponent = (draw & 1) == 0 ? 2 : 1;
+            assertEquals(cell, board.newTile());
+            assertEquals(start | (long) exponent << (BitBoard.CELL_BITS * cell), board.getState());
+            assertEquals(cell, board.getLastSpawn());
+        }
+    }
+}
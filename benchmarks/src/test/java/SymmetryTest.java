@@ -0,0 +1,105 @@
+/*
+ *
+ * Description: SymmetryTest class that checks the 8 symmetries of a packed grid
+ *              on random grids: every symmetry moves each cell where
+ *              transformCell says, is undone by its inverse and commutes with
+ *              the moves once the key is transformed; all 8 forms of a grid
+ *              share one canonical form, which canonicalSymmetry reaches; and
+ *              mapKey turns a key on a transformed grid back into the original
+ *              key. The transposition table relies on all of these.
+ *
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+public class SymmetryTest {
+    // number of random grids checked
+    private static final int BOARDS = 200000;
+    // number of cells of the grid
+    private static final int CELLS = BitBoard.GRID * BitBoard.GRID;
+
+    /* Description: makes a random grid with about a third of the cells empty
+     * Input: the random numbers
+     * Output: the packed grid
+     */
+    private static long randomGrid(SplittableRandom random) {
+        long board = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (random.nextInt(3) > 0) {
+                board |= (long) random.nextInt(1, BitBoard.CELL_MASK + 1) << (BitBoard.CELL_BITS * cell);
+            }
+        }
+        return board;
+    }
+
+    @Test
+    public void symmetriesMoveCellsAndAreUndoneByTheirInverse() {
+        SplittableRandom random = new SplittableRandom(17);
+        for (int n = 0; n < BOARDS; n++) {
+            long board = randomGrid(random);
+            for (int s = 0; s < Symmetry.COUNT; s++) {
+                long transformed = Symmetry.apply(board, s);
+                assertEquals(board, Symmetry.apply(transformed, Symmetry.inverse(s)));
+                for (int cell = 0; cell < CELLS; cell++) {
+                    assertEquals(BitBoard.exponentAt(board, cell),
+                                 BitBoard.exponentAt(transformed, Symmetry.transformCell(cell, s)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void allFormsShareTheCanonicalForm() {
+        SplittableRandom random = new SplittableRandom(18);
+        for (int n = 0; n < BOARDS; n++) {
+            long board = randomGrid(random);
+            long canonical = Symmetry.canonical(board);
+            long smallest = Long.MAX_VALUE;
+            for (int s = 0; s < Symmetry.COUNT; s++) {
+                long form = Symmetry.apply(board, s);
+                smallest = Math.min(smallest, form);
+                assertEquals(canonical, Symmetry.canonical(form));
+            }
+            assertEquals(smallest, canonical);
+            assertEquals(canonical, Symmetry.apply(board, Symmetry.canonicalSymmetry(board)));
+        }
+    }
+
+    @Test
+    public void keysFollowTheSymmetries() {
+        SplittableRandom random = new SplittableRandom(19);
+        for (int n = 0; n < BOARDS; n++) {
+            long board = randomGrid(random);
+            for (int s = 0; s < Symmetry.COUNT; s++) {
+                long transformed = Symmetry.apply(board, s);
+                for (int k = 0; k < BitBoard.KEYS.length(); k++) {
+                    char key = BitBoard.KEYS.charAt(k);
+                    char transformedKey = Symmetry.transformKey(key, s);
+                    assertEquals(Symmetry.apply(BitBoard.move(board, key), s),
+                                 BitBoard.move(transformed, transformedKey));
+                    assertEquals(key, Symmetry.mapKey(transformedKey, s));
+                }
+            }
+        }
+        assertEquals('u', Symmetry.transformKey('u', 5));
+    }
+
+    @Test
+    public void rotateTurnsAQuarterCounterclockwise() {
+        SplittableRandom random = new SplittableRandom(20);
+        for (int n = 0; n < BOARDS; n++) {
+            long board = randomGrid(random);
+            long turned = Symmetry.rotate(board);
+            for (int cell = 0; cell < CELLS; cell++) {
+                int i = cell / BitBoard.GRID;
+                int j = cell % BitBoard.GRID;
+                assertEquals(BitBoard.exponentAt(board, cell),
+                             BitBoard.exponentAt(turned, BitBoard.GRID * j + BitBoard.GRID - 1 - i));
+            }
+            assertEquals(board, Symmetry.rotate(Symmetry.rotate(Symmetry.rotate(turned))));
+        }
+    }
+}